@@ -0,0 +1,67 @@
+package com.example.cliente.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.cliente.ClientApplication;
+import com.example.cliente.model.Customer;
+
+/**
+ * Sobe a aplicação com H2 em memória para os benchmarks.
+ */
+final class BenchmarkApplication {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return run(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Sobe a aplicação com o Tomcat em uma porta livre ({@code local.server.port}).
+     */
+    static ConfigurableApplicationContext startServer(String... properties) {
+        return run(WebApplicationType.SERVLET, properties);
+    }
+
+    /**
+     * As propriedades vão como argumentos de linha de comando: como propriedades padrão,
+     * perderiam para o {@code application.properties} (que liga o {@code show-sql}).
+     * Uma propriedade repetida substitui a anterior.
+     */
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType, String... properties) {
+        Map<String, String> args = new LinkedHashMap<>();
+        Stream.concat(Stream.of(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN"), Stream.of(properties))
+                .forEach(property -> args.put(property.substring(0, property.indexOf('=')), "--" + property));
+        return new SpringApplicationBuilder(ClientApplication.class)
+                .web(webApplicationType)
+                .run(args.values().toArray(String[]::new));
+    }
+
+    /**
+     * Cria um cliente válido com e-mail e CPF únicos na JVM.
+     */
+    static Customer newCustomer() {
+        long n = SEQUENCE.incrementAndGet();
+        Customer customer = new Customer();
+        customer.setName("Cliente Benchmark " + n);
+        customer.setEmail("cliente" + n + "@benchmark.com");
+        customer.setPhone("(11) 1234-5678");
+        customer.setDocumentNumber(String.format("%03d.%03d.%03d-%02d",
+                n / 100_000_000 % 1000, n / 100_000 % 1000, n / 100 % 1000, n % 100));
+        return customer;
+    }
+}
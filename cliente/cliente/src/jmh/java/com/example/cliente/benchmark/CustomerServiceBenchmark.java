@@ -0,0 +1,81 @@
+package com.example.cliente.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.cliente.model.Customer;
+import com.example.cliente.service.CustomerService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    private static final int SEEDED_CUSTOMERS = 10_000;
+    private static final int HOT_CUSTOMERS = 100;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+    private Cache customersCache;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        customerService = context.getBean(CustomerService.class);
+        customersCache = context.getBean(CacheManager.class).getCache("customers");
+
+        List<Customer> customers = new ArrayList<>(SEEDED_CUSTOMERS);
+        for (int i = 0; i < SEEDED_CUSTOMERS; i++) {
+            customers.add(BenchmarkApplication.newCustomer());
+        }
+        ids = customerService.registerCustomers(customers).stream().mapToLong(result -> result.id()).toArray();
+
+        for (int i = 0; i < HOT_CUSTOMERS; i++) {
+            customerService.findCustomerById(ids[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Customer findCustomerByIdCacheHit() {
+        return customerService.findCustomerById(ids[ThreadLocalRandom.current().nextInt(HOT_CUSTOMERS)]);
+    }
+
+    @Benchmark
+    public Customer findCustomerByIdCacheMiss() {
+        long id = ids[HOT_CUSTOMERS + ThreadLocalRandom.current().nextInt(ids.length - HOT_CUSTOMERS)];
+        customersCache.evict(id);
+        return customerService.findCustomerById(id);
+    }
+
+    @Benchmark
+    public Customer registerCustomer() {
+        return customerService.registerCustomer(BenchmarkApplication.newCustomer());
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.cliente.benchmark;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import com.example.cliente.model.Customer;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.service.CustomerService;
+import com.example.cliente.service.OrderService;
+
+/**
+ * Teste de carga HTTP de {@code GET /customers/{id}/orders} com muitos clientes
+ * simultâneos, comparando o Tomcat com pool de threads de plataforma e com threads
+ * virtuais (este último só no Java 21 com o perfil Maven {@code java21}).
+ *
+ * Os dois modos usam o mesmo pool de conexões, então a diferença medida é só a do
+ * modelo de threads. Cada cliente faz uma requisição por vez (carga fechada) e a
+ * latência de cada uma entra no p50/p99.
+ *
+ * Argumentos: [concorrência=1000] [segundos de medição=20] [segundos de aquecimento=5] [propriedade=valor...]
+ *
+ * As propriedades extras vão para a aplicação, por exemplo
+ * {@code spring.datasource.url=jdbc:mysql://...}: com o H2 em memória quase não há espera
+ * de I/O e a CPU domina, o que esconde a vantagem das threads virtuais.
+ */
+public final class LoadBenchmark {
+
+    private static final int CUSTOMERS = 200;
+    private static final int ORDERS_PER_CUSTOMER = 20;
+    private static final String VIRTUAL_THREAD_CONFIG = "com.example.cliente.config.VirtualThreadConfig";
+
+    private LoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int measureSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int warmupSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String[] properties = args.length > 3 ? Arrays.copyOfRange(args, 3, args.length) : new String[0];
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("plataforma", concurrency, warmupSeconds, measureSeconds,
+                "threads.virtual.enabled=false", properties));
+        if (Runtime.version().feature() >= 21 && ClassUtils.isPresent(VIRTUAL_THREAD_CONFIG, null)) {
+            results.add(run("virtual", concurrency, warmupSeconds, measureSeconds,
+                    "threads.virtual.enabled=true", properties));
+        } else {
+            System.out.println("Modo virtual ignorado: requer Java 21 e o perfil Maven java21.");
+        }
+
+        System.out.printf("%n%-12s %12s %12s %10s %10s %10s %8s%n",
+                "modo", "concorrência", "req/s", "p50 ms", "p99 ms", "máx ms", "erros");
+        for (Result result : results) {
+            System.out.printf("%-12s %12d %12.0f %10.1f %10.1f %10.1f %8d%n",
+                    result.mode(), concurrency, result.throughput(),
+                    result.percentileMillis(0.50), result.percentileMillis(0.99),
+                    result.percentileMillis(1.0), result.errors());
+        }
+    }
+
+    private static Result run(String mode, int concurrency, int warmupSeconds, int measureSeconds,
+            String threadsProperty, String[] properties) throws InterruptedException {
+        String[] defaults = {
+                threadsProperty,
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.hikari.maximum-pool-size=20",
+                "spring.datasource.hikari.minimum-idle=20",
+                "spring.datasource.hikari.connection-timeout=2000",
+                "server.tomcat.accept-count=1000" };
+        ConfigurableApplicationContext context = BenchmarkApplication.startServer(
+                Stream.concat(Stream.of(defaults), Stream.of(properties)).toArray(String[]::new));
+        try {
+            long[] customerIds = seed(context);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            System.out.printf("[%s] aquecimento de %ds com %d clientes...%n", mode, warmupSeconds, concurrency);
+            drive(client, baseUrl, customerIds, concurrency, warmupSeconds);
+            System.out.printf("[%s] medição de %ds...%n", mode, measureSeconds);
+            Worker[] workers = drive(client, baseUrl, customerIds, concurrency, measureSeconds);
+            return Result.of(mode, workers, measureSeconds);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long[] seed(ConfigurableApplicationContext context) {
+        CustomerService customerService = context.getBean(CustomerService.class);
+        OrderService orderService = context.getBean(OrderService.class);
+        long[] customerIds = new long[CUSTOMERS];
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = customerService.registerCustomer(BenchmarkApplication.newCustomer());
+            customerIds[i] = customer.getId();
+            for (int j = 0; j < ORDERS_PER_CUSTOMER; j++) {
+                orderService.createOrder(new Order(customer, LocalDateTime.now(), new BigDecimal("199.90"), OrderStatus.NEW));
+            }
+        }
+        return customerIds;
+    }
+
+    private static Worker[] drive(HttpClient client, String baseUrl, long[] customerIds, int concurrency,
+            int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        Worker[] workers = new Worker[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(client, baseUrl, customerIds, deadline);
+            workers[i] = worker;
+            Thread thread = new Thread(() -> {
+                try {
+                    worker.run();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        return workers;
+    }
+
+    /**
+     * Um cliente HTTP: requisições em sequência até o prazo, guardando a latência de cada uma.
+     */
+    private static final class Worker implements Runnable {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final long[] customerIds;
+        private final long deadline;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        Worker(HttpClient client, String baseUrl, long[] customerIds, long deadline) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.customerIds = customerIds;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                long customerId = customerIds[random.nextInt(customerIds.length)];
+                HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/customers/" + customerId + "/orders?limit=10")).GET().build();
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    errors++;
+                }
+                record(System.nanoTime() - start);
+            }
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private record Result(String mode, long[] sortedLatencies, int errors, int seconds) {
+
+        static Result of(String mode, Worker[] workers, int seconds) {
+            int total = 0;
+            int errors = 0;
+            for (Worker worker : workers) {
+                total += worker.count;
+                errors += worker.errors;
+            }
+            long[] all = new long[total];
+            int position = 0;
+            for (Worker worker : workers) {
+                System.arraycopy(worker.latencies, 0, all, position, worker.count);
+                position += worker.count;
+            }
+            Arrays.sort(all);
+            return new Result(mode, all, errors, seconds);
+        }
+
+        double throughput() {
+            return (double) sortedLatencies.length / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
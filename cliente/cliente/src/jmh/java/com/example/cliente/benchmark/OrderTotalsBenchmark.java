@@ -0,0 +1,78 @@
+package com.example.cliente.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.cliente.model.OrderItem;
+import com.example.cliente.pricing.OrderTotals;
+
+/**
+ * Total de um pedido a partir dos itens: soma em centavos ({@link OrderTotals}) contra a
+ * mesma conta com um {@link BigDecimal} por preço, como seria com {@code unitPrice} em
+ * {@code BigDecimal}. Com {@code -prof gc}, a soma em centavos deve mostrar 0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderTotalsBenchmark {
+
+    @Param({ "4", "64" })
+    private int itemCount;
+
+    private List<OrderItem> items;
+    private int[] quantities;
+    private BigDecimal[] unitPrices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        items = new ArrayList<>(itemCount);
+        quantities = new int[itemCount];
+        unitPrices = new BigDecimal[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            int quantity = random.nextInt(1, 10);
+            long unitPriceCents = random.nextLong(1, 100_000);
+            items.add(new OrderItem(null, quantity, unitPriceCents));
+            quantities[i] = quantity;
+            unitPrices[i] = BigDecimal.valueOf(unitPriceCents, 2);
+        }
+    }
+
+    @Benchmark
+    public long cents() {
+        return OrderTotals.totalCents(items);
+    }
+
+    @Benchmark
+    public BigDecimal centsToBigDecimal() {
+        return OrderTotals.toBigDecimal(OrderTotals.totalCents(items));
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < unitPrices.length; i++) {
+            total = total.add(unitPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.cliente.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.cliente.dto.CustomerResponse;
+import com.example.cliente.dto.OrderItemResponse;
+import com.example.cliente.dto.OrderResponse;
+import com.example.cliente.model.Customer;
+import com.example.cliente.model.OrderStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serialização Jackson dos mesmos DTOs retornados pelos controllers,
+ * com o ObjectMapper configurado como o do Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 10;
+
+    private ObjectMapper objectMapper;
+    private CustomerResponse customer;
+    private OrderResponse order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Customer entity = BenchmarkApplication.newCustomer();
+        entity.setId(1L);
+        entity.setRegistrationDate(LocalDate.now());
+        customer = CustomerResponse.from(entity);
+
+        List<OrderItemResponse> items = new ArrayList<>(ITEMS_PER_ORDER);
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            items.add(new OrderItemResponse((long) i, i + 1, new BigDecimal("19.99")));
+        }
+        order = new OrderResponse(1L, entity.getId(), LocalDateTime.now(), new BigDecimal("199.90"), OrderStatus.NEW, items);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customer);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+}
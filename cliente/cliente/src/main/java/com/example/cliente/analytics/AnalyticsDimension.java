@@ -0,0 +1,36 @@
+package com.example.cliente.analytics;
+
+import java.util.Arrays;
+
+import com.example.cliente.exception.BadRequestException;
+
+/**
+ * Dimensões de agrupamento de GET /orders/analytics/revenue. {@code cohort} é o mês de
+ * cadastro do cliente, para comparar a receita das turmas de clientes.
+ */
+public enum AnalyticsDimension {
+    STATUS("status"),
+    ORDER_MONTH("orderMonth"),
+    COHORT("cohort");
+
+    private final String parameter;
+
+    AnalyticsDimension(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public static AnalyticsDimension parse(String value) {
+        String trimmed = value.trim();
+        for (AnalyticsDimension dimension : values()) {
+            if (dimension.parameter.equalsIgnoreCase(trimmed)) {
+                return dimension;
+            }
+        }
+        throw new BadRequestException("Valor inválido para o parâmetro groupBy: " + value + ". Valores aceitos: "
+                + Arrays.stream(values()).map(AnalyticsDimension::parameter).toList());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.cliente.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção da data de cadastro de um cliente, usada na dimensão {@code cohort}.
+ */
+public record CustomerRegistration(Long id, LocalDate registrationDate) {
+}
@@ -0,0 +1,371 @@
+package com.example.cliente.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cliente.dto.RevenueReport;
+import com.example.cliente.dto.RevenueRow;
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.OrderDeletedEvent;
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.exception.ServiceUnavailableException;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.repository.CustomerRepository;
+import com.example.cliente.repository.OrderRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Motor de análise opcional ({@code orders.analytics.enabled=true}): mantém os pedidos
+ * em um {@link OrderColumns} e responde consultas de receita com varreduras fork-join
+ * sobre os arrays, sem JPA nem entidades no caminho da consulta.
+ *
+ * A cópia é carregada por inteiro no start, antes de o servidor web começar a aceitar
+ * requisições (fase {@link #PHASE}); até lá, a consulta responde 503. Depois ela é
+ * atualizada a cada
+ * {@code orders.analytics.refresh-interval-ms} em uma thread própria: clientes e pedidos
+ * com {@code updatedAt} desde a atualização anterior (menos
+ * {@code orders.analytics.refresh-overlap-ms}, para não perder transações que gravaram
+ * antes e confirmaram depois) são relidos e sobrescritos. Exclusões não deixam rastro em
+ * {@code updatedAt}: as feitas por esta instância chegam como eventos depois do commit
+ * ({@link OrderDeletedEvent}, ou {@link CustomerChangedEvent} de exclusão para os pedidos
+ * do cliente) e são aplicadas depois das linhas relidas na atualização seguinte. As de
+ * outras instâncias ou fora da API só aparecem quando a contagem de pedidos do banco
+ * difere da cópia (os IDs são relidos e os ausentes viram lápides) ou na recarga a cada
+ * {@code orders.analytics.full-reload-interval-ms}, que também corrige qualquer transação
+ * mais longa que a sobreposição.
+ *
+ * As linhas são aplicadas em blocos sob o write lock; as consultas seguram o read lock
+ * durante a varredura, então nunca veem um pedido pela metade.
+ *
+ * Métricas: {@code orders.analytics.rows} e {@code orders.analytics.age} (tempo desde a
+ * última atualização).
+ */
+@Component
+@ConditionalOnProperty(name = "orders.analytics.enabled", havingValue = "true")
+public class OrderAnalytics implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderAnalytics.class);
+
+    // Antes do servidor web (fase DEFAULT_PHASE - 2048), para não servir relatórios parciais da primeira carga
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final int APPLY_CHUNK_SIZE = 10_000;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderColumns columns = new OrderColumns(1024);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Exclusões confirmadas desde a última atualização
+    private final Set<Long> deletedOrders = ConcurrentHashMap.newKeySet();
+    private final Set<Long> deletedCustomers = ConcurrentHashMap.newKeySet();
+
+    @Value("${orders.analytics.refresh-interval-ms:1000}")
+    private long refreshIntervalMillis = 1000;
+
+    @Value("${orders.analytics.refresh-overlap-ms:5000}")
+    private long refreshOverlapMillis = 5000;
+
+    @Value("${orders.analytics.full-reload-interval-ms:3600000}")
+    private long fullReloadIntervalMillis = 3_600_000;
+
+    // 0 = um worker por processador
+    @Value("${orders.analytics.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private volatile Instant asOf;
+    private Instant watermark;
+    private long lastFullReloadNanos;
+    private volatile boolean running;
+    private Thread worker;
+
+    public OrderAnalytics(OrderRepository orderRepository, CustomerRepository customerRepository,
+            TransactionTemplate transactionTemplate) {
+        this.orderRepository = orderRepository;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orders.analytics.rows", this, OrderAnalytics::rows)
+                .description("Pedidos na cópia colunar do motor de análise")
+                .register(registry);
+        TimeGauge.builder("orders.analytics.age", this, TimeUnit.MILLISECONDS, OrderAnalytics::ageMillis)
+                .description("Tempo desde a última atualização da cópia colunar")
+                .register(registry);
+    }
+
+    public long rows() {
+        lock.readLock().lock();
+        try {
+            return columns.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long ageMillis() {
+        Instant last = asOf;
+        return last == null ? 0 : Math.max(0, System.currentTimeMillis() - last.toEpochMilli());
+    }
+
+    @Override
+    public void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        refresh(true);
+        running = true;
+        worker = new Thread(this::run, "order-analytics-refresh");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Receita (quantidade, soma e ticket médio) agrupada pelas dimensões pedidas, para os
+     * pedidos do período {@code [from, to)} e, se informado, de um status. Pedidos sem o
+     * valor de uma dimensão agrupada (sem data, sem status, cliente sem cadastro) ficam de fora.
+     */
+    public RevenueReport revenue(Set<AnalyticsDimension> groupBy, LocalDateTime from, LocalDateTime to,
+            OrderStatus status) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("A data inicial (from) deve ser anterior à final (to)");
+        }
+        RevenueFilter filter = RevenueFilter.of(groupBy, from, to, status);
+        RevenueAccumulator totals;
+        long scanned;
+        Instant snapshotTime;
+        lock.readLock().lock();
+        try {
+            // asOf só é gravado no fim da primeira carga completa
+            if (asOf == null) {
+                throw new ServiceUnavailableException("Motor de análise ainda carregando os pedidos, tente novamente.");
+            }
+            totals = pool.invoke(new RevenueScan(columns, filter, 0, columns.size()));
+            scanned = columns.liveCount();
+            snapshotTime = asOf;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<RevenueRow> rows = new ArrayList<>(totals.size());
+        for (long key : totals.sortedKeys()) {
+            long count = totals.count(key);
+            long cents = totals.cents(key);
+            rows.add(new RevenueRow(
+                    statusOf(key),
+                    monthOf((key >>> RevenueScan.ORDER_MONTH_SHIFT) & 0xFFFFF),
+                    monthOf(key & 0xFFFFF),
+                    count,
+                    BigDecimal.valueOf(cents, 2),
+                    BigDecimal.valueOf(cents, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_EVEN)));
+        }
+        return new RevenueReport(snapshotTime, scanned, rows);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        deletedOrders.add(event.id());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.after() == null) {
+            deletedCustomers.add(event.before().id());
+        }
+    }
+
+    private void run() {
+        lastFullReloadNanos = System.nanoTime();
+        while (running) {
+            try {
+                Thread.sleep(refreshIntervalMillis);
+                boolean full = System.nanoTime() - lastFullReloadNanos >= TimeUnit.MILLISECONDS.toNanos(fullReloadIntervalMillis);
+                refresh(full);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Falha ao atualizar a cópia colunar de pedidos, tentando novamente", e);
+            }
+        }
+    }
+
+    /**
+     * Relê o que mudou desde a última atualização (ou tudo, com {@code full}) e remove os
+     * pedidos excluídos. Chamado só pela thread de atualização (e pelo start).
+     */
+    void refresh(boolean full) {
+        long start = System.nanoTime();
+        Instant started = Instant.now();
+        Instant since = full || watermark == null ? null : watermark.minusMillis(refreshOverlapMillis);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CustomerRegistration> customers = since == null
+                    ? customerRepository.streamRegistrations()
+                    : customerRepository.streamRegistrationsUpdatedSince(since)) {
+                applyInChunks(customers, columns::register);
+            }
+            try (Stream<OrderRow> orders = since == null
+                    ? orderRepository.streamAnalyticsRows()
+                    : orderRepository.streamAnalyticsRowsUpdatedSince(since)) {
+                applyInChunks(orders, columns::upsert);
+            }
+        });
+        // Depois das linhas relidas, que podem ter sido lidas antes da exclusão
+        int removed = removeTracked();
+        if (full || rows() != orderRepository.count()) {
+            removed += removeDeleted();
+        }
+        lock.writeLock().lock();
+        try {
+            columns.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        watermark = started;
+        asOf = started;
+        if (full) {
+            lastFullReloadNanos = System.nanoTime();
+            log.info("Cópia colunar de pedidos recarregada: {} pedidos em {} ms", rows(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } else if (removed > 0) {
+            log.debug("Cópia colunar de pedidos: {} pedidos excluídos removidos", removed);
+        }
+    }
+
+    private int removeTracked() {
+        if (deletedOrders.isEmpty() && deletedCustomers.isEmpty()) {
+            return 0;
+        }
+        int removed = 0;
+        lock.writeLock().lock();
+        try {
+            for (Iterator<Long> iterator = deletedOrders.iterator(); iterator.hasNext();) {
+                long id = iterator.next();
+                iterator.remove();
+                if (columns.remove(id)) {
+                    removed++;
+                }
+            }
+            for (Iterator<Long> iterator = deletedCustomers.iterator(); iterator.hasNext();) {
+                long customerId = iterator.next();
+                iterator.remove();
+                removed += columns.removeCustomer(customerId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return removed;
+    }
+
+    private int removeDeleted() {
+        long[] ids = transactionTemplate.execute(status -> {
+            long[] buffer = new long[(int) Math.max(16, rows())];
+            int count = 0;
+            try (Stream<Long> stream = orderRepository.streamAllIds()) {
+                Iterator<Long> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, count * 2);
+                    }
+                    buffer[count++] = iterator.next();
+                }
+            }
+            long[] sorted = Arrays.copyOf(buffer, count);
+            Arrays.sort(sorted);
+            return sorted;
+        });
+        lock.writeLock().lock();
+        try {
+            return columns.removeAbsent(ids, ids.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> void applyInChunks(Stream<T> rows, Consumer<T> apply) {
+        List<T> chunk = new ArrayList<>(APPLY_CHUNK_SIZE);
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == APPLY_CHUNK_SIZE || !iterator.hasNext()) {
+                lock.writeLock().lock();
+                try {
+                    chunk.forEach(apply);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                chunk.clear();
+            }
+        }
+    }
+
+    private static OrderStatus statusOf(long key) {
+        int ordinal = (int) (key >>> RevenueScan.STATUS_SHIFT);
+        return ordinal == 0 ? null : STATUSES[ordinal - 1];
+    }
+
+    private static YearMonth monthOf(long part) {
+        if (part == 0) {
+            return null;
+        }
+        int month = (int) part - 1;
+        return YearMonth.of(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.cliente.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import com.example.cliente.index.LongLongHashMap;
+
+/**
+ * Cópia colunar dos pedidos em arrays primitivos, uma posição por pedido: ID, cliente,
+ * data (segundos desde a época, em UTC), valor em centavos, ordinal do status e o dia de
+ * cadastro do cliente, repetido em cada pedido para que a varredura não consulte mapa algum.
+ *
+ * Um pedido alterado é sobrescrito na mesma posição; um excluído vira lápide
+ * ({@link #DELETED}) e só sai de fato na compactação, quando as lápides passam de um
+ * quarto das posições. Não é thread-safe: o {@link OrderAnalytics} protege o acesso com
+ * um ReadWriteLock.
+ */
+final class OrderColumns {
+
+    static final byte NO_STATUS = -1;
+    static final byte DELETED = -2;
+    static final long NO_DATE = Long.MIN_VALUE;
+    static final int NO_REGISTRATION = Integer.MIN_VALUE;
+
+    private static final long MISSING = -1L;
+    // Ausência no mapa de cadastros, cujos valores (dias desde a época) podem ser negativos
+    private static final long UNKNOWN_CUSTOMER = Long.MIN_VALUE;
+    private static final int MIN_COMPACTION = 1024;
+
+    long[] ids;
+    long[] customerIds;
+    long[] orderEpochSeconds;
+    long[] totalCents;
+    byte[] statuses;
+    int[] registrationDays;
+    // Posições usadas, lápides incluídas
+    int size;
+
+    private int deleted;
+    private final LongLongHashMap rowsById;
+    private final LongLongHashMap registrationByCustomer;
+    // Clientes com pedidos carregados antes do cadastro: ao chegar, o cadastro é copiado para esses pedidos
+    private final LongLongHashMap awaitingRegistration = new LongLongHashMap(16);
+
+    OrderColumns(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        ids = new long[capacity];
+        customerIds = new long[capacity];
+        orderEpochSeconds = new long[capacity];
+        totalCents = new long[capacity];
+        statuses = new byte[capacity];
+        registrationDays = new int[capacity];
+        rowsById = new LongLongHashMap(capacity);
+        registrationByCustomer = new LongLongHashMap(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int liveCount() {
+        return size - deleted;
+    }
+
+    void upsert(OrderRow order) {
+        long existing = rowsById.get(order.id(), MISSING);
+        int row;
+        if (existing == MISSING) {
+            ensureCapacity(size + 1);
+            row = size++;
+            ids[row] = order.id();
+            rowsById.put(order.id(), row);
+        } else {
+            row = (int) existing;
+        }
+        long customerId = order.customerId() == null ? MISSING : order.customerId();
+        customerIds[row] = customerId;
+        orderEpochSeconds[row] = order.orderDate() == null ? NO_DATE : order.orderDate().toEpochSecond(ZoneOffset.UTC);
+        totalCents[row] = toCents(order.totalValue());
+        statuses[row] = order.status() == null ? NO_STATUS : (byte) order.status().ordinal();
+        registrationDays[row] = registrationOf(customerId);
+    }
+
+    boolean remove(long id) {
+        long row = rowsById.get(id, MISSING);
+        if (row == MISSING) {
+            return false;
+        }
+        rowsById.remove(id);
+        statuses[(int) row] = DELETED;
+        deleted++;
+        return true;
+    }
+
+    /**
+     * Transforma em lápide todos os pedidos do cliente. Retorna quantos foram removidos.
+     */
+    int removeCustomer(long customerId) {
+        int removed = 0;
+        for (int row = 0; row < size; row++) {
+            if (customerIds[row] == customerId && statuses[row] != DELETED) {
+                remove(ids[row]);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Grava a data de cadastro do cliente. Se ela mudou (ou o cliente tinha pedidos
+     * esperando pelo cadastro), os pedidos dele são atualizados com uma varredura da
+     * coluna de clientes; um cliente novo, sem pedidos, não custa varredura.
+     */
+    void register(CustomerRegistration customer) {
+        long day = customer.registrationDate() == null ? NO_REGISTRATION : customer.registrationDate().toEpochDay();
+        long previous = registrationByCustomer.get(customer.id(), UNKNOWN_CUSTOMER);
+        if (previous == day) {
+            return;
+        }
+        registrationByCustomer.put(customer.id(), day);
+        if (previous != UNKNOWN_CUSTOMER || awaitingRegistration.remove(customer.id())) {
+            for (int row = 0; row < size; row++) {
+                if (customerIds[row] == customer.id()) {
+                    registrationDays[row] = (int) day;
+                }
+            }
+        }
+    }
+
+    /**
+     * Transforma em lápide todo pedido cujo ID não está em {@code sortedIds} (os IDs
+     * presentes no banco, em ordem crescente). Retorna quantos foram removidos.
+     */
+    int removeAbsent(long[] sortedIds, int count) {
+        int removed = 0;
+        for (int row = 0; row < size; row++) {
+            if (statuses[row] != DELETED && Arrays.binarySearch(sortedIds, 0, count, ids[row]) < 0) {
+                remove(ids[row]);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Remove as lápides quando elas passam de um quarto das posições, mantendo a ordem
+     * dos pedidos restantes.
+     */
+    boolean compactIfNeeded() {
+        if (deleted < MIN_COMPACTION || deleted * 4 < size) {
+            return false;
+        }
+        int live = 0;
+        rowsById.clear();
+        for (int row = 0; row < size; row++) {
+            if (statuses[row] == DELETED) {
+                continue;
+            }
+            ids[live] = ids[row];
+            customerIds[live] = customerIds[row];
+            orderEpochSeconds[live] = orderEpochSeconds[row];
+            totalCents[live] = totalCents[row];
+            statuses[live] = statuses[row];
+            registrationDays[live] = registrationDays[row];
+            rowsById.put(ids[live], live);
+            live++;
+        }
+        size = live;
+        deleted = 0;
+        return true;
+    }
+
+    private int registrationOf(long customerId) {
+        if (customerId == MISSING) {
+            return NO_REGISTRATION;
+        }
+        long day = registrationByCustomer.get(customerId, UNKNOWN_CUSTOMER);
+        if (day == UNKNOWN_CUSTOMER) {
+            awaitingRegistration.put(customerId, 1);
+            return NO_REGISTRATION;
+        }
+        return (int) day;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        customerIds = Arrays.copyOf(customerIds, newCapacity);
+        orderEpochSeconds = Arrays.copyOf(orderEpochSeconds, newCapacity);
+        totalCents = Arrays.copyOf(totalCents, newCapacity);
+        statuses = Arrays.copyOf(statuses, newCapacity);
+        registrationDays = Arrays.copyOf(registrationDays, newCapacity);
+    }
+
+    private static long toCents(BigDecimal value) {
+        return value == null ? 0 : value.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.cliente.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Projeção de um pedido com só o que vai para o {@link OrderColumns}.
+ */
+public record OrderRow(Long id, Long customerId, LocalDateTime orderDate, BigDecimal totalValue, OrderStatus status) {
+}
@@ -0,0 +1,59 @@
+package com.example.cliente.analytics;
+
+import java.util.Arrays;
+
+import com.example.cliente.index.LongLongHashMap;
+
+/**
+ * Quantidade e soma em centavos por chave de grupo, em arrays primitivos. Cada
+ * {@link RevenueScan} folha tem o seu; os parciais são somados na junção.
+ */
+final class RevenueAccumulator {
+
+    private final LongLongHashMap slotsByKey = new LongLongHashMap(64);
+    private long[] keys = new long[64];
+    private long[] counts = new long[64];
+    private long[] cents = new long[64];
+    private int size;
+
+    void add(long key, long count, long totalCents) {
+        int slot = (int) slotsByKey.get(key, -1);
+        if (slot < 0) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+            }
+            slot = size++;
+            keys[slot] = key;
+            slotsByKey.put(key, slot);
+        }
+        counts[slot] += count;
+        cents[slot] += totalCents;
+    }
+
+    RevenueAccumulator merge(RevenueAccumulator other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.keys[i], other.counts[i], other.cents[i]);
+        }
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] sortedKeys() {
+        long[] sorted = Arrays.copyOf(keys, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    long count(long key) {
+        return counts[(int) slotsByKey.get(key, -1)];
+    }
+
+    long cents(long key) {
+        return cents[(int) slotsByKey.get(key, -1)];
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.cliente.analytics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Consulta de receita já traduzida para os tipos das colunas: período em segundos
+ * desde a época ({@code [from, to)}), ordinal do status (-1 = todos) e as dimensões
+ * agrupadas.
+ */
+record RevenueFilter(long fromEpochSecond, long toEpochSecond, int status,
+        boolean byStatus, boolean byOrderMonth, boolean byCohort) {
+
+    static RevenueFilter of(Set<AnalyticsDimension> groupBy, LocalDateTime from, LocalDateTime to, OrderStatus status) {
+        return new RevenueFilter(
+                from == null ? Long.MIN_VALUE : from.toEpochSecond(ZoneOffset.UTC),
+                to == null ? Long.MAX_VALUE : to.toEpochSecond(ZoneOffset.UTC),
+                status == null ? -1 : status.ordinal(),
+                groupBy.contains(AnalyticsDimension.STATUS),
+                groupBy.contains(AnalyticsDimension.ORDER_MONTH),
+                groupBy.contains(AnalyticsDimension.COHORT));
+    }
+}
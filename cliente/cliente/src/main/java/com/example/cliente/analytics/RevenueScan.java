@@ -0,0 +1,104 @@
+package com.example.cliente.analytics;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Varredura fork-join de um intervalo de posições do {@link OrderColumns}: intervalos
+ * grandes são divididos ao meio até {@link #LEAF_SIZE} posições, cada folha soma em um
+ * {@link RevenueAccumulator} próprio e os resultados são somados na volta.
+ *
+ * A chave de grupo junta as dimensões pedidas em um {@code long}: ordinal do status + 1
+ * a partir do bit 40, mês do pedido + 1 a partir do bit 20 e mês de cadastro + 1 nos bits
+ * baixos (0 = dimensão não agrupada). Meses são contados como {@code ano * 12 + mês - 1},
+ * calculados do dia desde a época sem criar {@code LocalDate}.
+ */
+final class RevenueScan extends RecursiveTask<RevenueAccumulator> {
+
+    static final int LEAF_SIZE = 1 << 15;
+    static final int STATUS_SHIFT = 40;
+    static final int ORDER_MONTH_SHIFT = 20;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final OrderColumns columns;
+    private final RevenueFilter filter;
+    private final int from;
+    private final int to;
+
+    RevenueScan(OrderColumns columns, RevenueFilter filter, int from, int to) {
+        this.columns = columns;
+        this.filter = filter;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected RevenueAccumulator compute() {
+        if (to - from <= LEAF_SIZE) {
+            return scan();
+        }
+        int middle = (from + to) >>> 1;
+        RevenueScan left = new RevenueScan(columns, filter, from, middle);
+        left.fork();
+        RevenueAccumulator right = new RevenueScan(columns, filter, middle, to).compute();
+        return left.join().merge(right);
+    }
+
+    private RevenueAccumulator scan() {
+        RevenueAccumulator accumulator = new RevenueAccumulator();
+        byte[] statuses = columns.statuses;
+        long[] orderEpochSeconds = columns.orderEpochSeconds;
+        long[] totalCents = columns.totalCents;
+        int[] registrationDays = columns.registrationDays;
+        for (int row = from; row < to; row++) {
+            byte status = statuses[row];
+            if (status == OrderColumns.DELETED || (filter.status() >= 0 && status != filter.status())) {
+                continue;
+            }
+            long second = orderEpochSeconds[row];
+            if (second < filter.fromEpochSecond() || second >= filter.toEpochSecond()) {
+                continue;
+            }
+            long key = 0;
+            if (filter.byStatus()) {
+                if (status == OrderColumns.NO_STATUS) {
+                    continue;
+                }
+                key |= (long) (status + 1) << STATUS_SHIFT;
+            }
+            if (filter.byOrderMonth()) {
+                int month = second == OrderColumns.NO_DATE ? -1 : monthIndex(Math.floorDiv(second, SECONDS_PER_DAY));
+                if (month < 0) {
+                    continue;
+                }
+                key |= (long) (month + 1) << ORDER_MONTH_SHIFT;
+            }
+            if (filter.byCohort()) {
+                int day = registrationDays[row];
+                int month = day == OrderColumns.NO_REGISTRATION ? -1 : monthIndex(day);
+                if (month < 0) {
+                    continue;
+                }
+                key |= month + 1;
+            }
+            accumulator.add(key, 1, totalCents[row]);
+        }
+        return accumulator;
+    }
+
+    /**
+     * {@code ano * 12 + mês - 1} do dia desde a época, pelo algoritmo de calendário civil
+     * de Howard Hinnant (só aritmética inteira).
+     */
+    static int monthIndex(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 12 + month - 1);
+    }
+}
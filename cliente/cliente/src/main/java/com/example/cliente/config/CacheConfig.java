@@ -0,0 +1,39 @@
+package com.example.cliente.config;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Configuração dos caches (Caffeine, ver {@code spring.cache.caffeine.spec}).
+ *
+ * O interceptor de cache roda por fora do transacional ({@code order} menor que o
+ * do {@code @Transactional}), então um {@code @CacheEvict} só acontece depois do
+ * commit e uma leitura concorrente não repopula o cache com o valor antigo.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    /**
+     * Além das métricas padrão de cache (gets por hit/miss, evictions, size),
+     * publica a taxa de acerto já calculada pelo Caffeine.
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                Gauge.builder("cache.hit.ratio", cache.getNativeCache(), nativeCache -> nativeCache.stats().hitRate())
+                        .tag("cache", name)
+                        .description("Taxa de acerto do cache desde a inicialização")
+                        .register(registry);
+            }
+        });
+    }
+}
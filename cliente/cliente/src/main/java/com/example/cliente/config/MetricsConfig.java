@@ -0,0 +1,23 @@
+package com.example.cliente.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Habilita o {@code @Timed} dos serviços: cada método público vira um timer
+ * {@code service.method} com as tags {@code class}, {@code method} e {@code exception}.
+ *
+ * O aspecto roda por dentro do interceptor de cache: leituras atendidas pelo cache
+ * aparecem só em {@code cache.gets} (result=hit), e o timer mede o trabalho real.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
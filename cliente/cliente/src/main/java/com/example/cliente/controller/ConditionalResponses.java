@@ -0,0 +1,69 @@
+package com.example.cliente.controller;
+
+import java.time.Instant;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import com.example.cliente.exception.BadRequestException;
+
+/**
+ * ETags de registros versionados: o ETag é a versão ({@code @Version}) entre aspas.
+ *
+ * Em um GET com {@code If-None-Match}/{@code If-Modified-Since} que ainda vale, o
+ * Spring MVC responde 304 sem serializar o corpo.
+ */
+final class ConditionalResponses {
+
+    static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private ConditionalResponses() {
+    }
+
+    static ResponseEntity.BodyBuilder ok(Long version, Instant updatedAt) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(version.toString());
+        }
+        if (updatedAt != null) {
+            builder.lastModified(updatedAt);
+        }
+        return builder;
+    }
+
+    /**
+     * Como {@link #ok(Long, Instant)}, para o corpo em gzip: os bytes diferem dos da
+     * representação sem compressão, então o ETag forte também difere ({@code "3-gzip"}).
+     */
+    static ResponseEntity.BodyBuilder okGzip(Long version, Instant updatedAt) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        if (version != null) {
+            builder.eTag(version + GZIP_ETAG_SUFFIX);
+        }
+        if (updatedAt != null) {
+            builder.lastModified(updatedAt);
+        }
+        return builder;
+    }
+
+    /**
+     * Lê a versão esperada do cabeçalho {@code If-Match} (por exemplo {@code "3"}).
+     */
+    static long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new BadRequestException("O cabeçalho If-Match com o ETag do registro é obrigatório");
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("ETag inválido no cabeçalho If-Match: " + ifMatch);
+        }
+    }
+}
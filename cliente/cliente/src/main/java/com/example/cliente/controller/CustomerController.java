@@ -4,7 +4,9 @@ import java.util.List;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,53 +14,131 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.cliente.dto.CursorPage;
+import com.example.cliente.dto.CustomerBatchResult;
+import com.example.cliente.dto.CustomerDeletionResult;
+import com.example.cliente.dto.CustomerRanking;
+import com.example.cliente.dto.CustomerResponse;
+import com.example.cliente.dto.CustomerSearchHit;
+import com.example.cliente.dto.OrderResponse;
 import com.example.cliente.model.Customer;
 import com.example.cliente.exception.BadRequestException;
 import com.example.cliente.exception.InternalServerErrorException;
 import com.example.cliente.exception.NotFoundException;
+import com.example.cliente.service.CustomerJsonCache;
 import com.example.cliente.service.CustomerService;
+import com.example.cliente.service.OrderService;
 
 @RestController
 @RequestMapping("/customers")
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final OrderService orderService;
+    private final CustomerJsonCache customerJsonCache;
 
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, OrderService orderService,
+            CustomerJsonCache customerJsonCache) {
         this.customerService = customerService;
+        this.orderService = orderService;
+        this.customerJsonCache = customerJsonCache;
     }
 
     @PostMapping
-    public ResponseEntity<Customer> registerCustomer(@Valid @RequestBody Customer customer) {
+    public ResponseEntity<CustomerResponse> registerCustomer(@Valid @RequestBody Customer customer) {
         Customer newCustomer = customerService.registerCustomer(customer);
-        return new ResponseEntity<>(newCustomer, HttpStatus.CREATED);
+        return new ResponseEntity<>(CustomerResponse.from(newCustomer), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<CustomerBatchResult>> registerCustomers(@RequestBody List<Customer> customers) {
+        List<CustomerBatchResult> results = customerService.registerCustomers(customers);
+        return ResponseEntity.ok(results);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Customer> updateCustomer(@PathVariable Long id, @Valid @RequestBody Customer customer) {
+    public ResponseEntity<CustomerResponse> updateCustomer(@PathVariable Long id, @Valid @RequestBody Customer customer) {
         Customer updatedCustomer = customerService.updateCustomer(id, customer);
-        return ResponseEntity.ok(updatedCustomer);
+        return ResponseEntity.ok(CustomerResponse.from(updatedCustomer));
     }
 
+    /**
+     * Leitura servida pelo cache; um {@code If-None-Match} com a versão atual recebe 304
+     * sem ir ao banco. O corpo são os bytes JSON já serializados do {@link CustomerJsonCache},
+     * em gzip quando o cliente aceita, com um ETag próprio ({@code "3-gzip"}).
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Customer> findCustomerById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> findCustomerById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CustomerJsonCache.Entry entry = customerJsonCache.find(id);
+        byte[] gzip = CustomerJsonCache.acceptsGzip(acceptEncoding) ? customerJsonCache.gzip(entry) : null;
+        ResponseEntity.BodyBuilder response = gzip != null
+                ? ConditionalResponses.okGzip(entry.version(), entry.updatedAt())
+                : ConditionalResponses.ok(entry.version(), entry.updatedAt());
+        return response.contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .body(gzip != null ? gzip : entry.json());
+    }
+
+    @GetMapping("/by-document/{documentNumber}")
+    public ResponseEntity<CustomerResponse> findCustomerByDocumentNumber(@PathVariable String documentNumber) {
+        Long id = customerService.findCustomerIdByDocumentNumber(documentNumber);
         Customer customer = customerService.findCustomerById(id);
-        return ResponseEntity.ok(customer);
+        return ConditionalResponses.ok(customer.getVersion(), customer.getUpdatedAt())
+                .body(CustomerResponse.from(customer));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<CustomerSearchHit>> searchCustomers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<CustomerSearchHit> hits = customerService.searchCustomers(q, limit);
+        return ResponseEntity.ok(hits);
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<List<CustomerRanking>> findTopCustomers(
+            @RequestParam(defaultValue = "ltv") String by,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(customerService.findTopCustomers(by, limit));
+    }
+
+    @GetMapping("/{id}/orders")
+    public ResponseEntity<CursorPage<OrderResponse>> findCustomerOrders(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        // Garante o 404 para cliente inexistente (leitura servida pelo cache)
+        customerService.findCustomerById(id);
+        CursorPage<OrderResponse> orders = orderService.getCustomerOrders(id, after, limit);
+        return ResponseEntity.ok(orders);
     }
 
     @GetMapping
-    public ResponseEntity<List<Customer>> findAllCustomers() {
-        List<Customer> customers = customerService.findAllCustomers();
+    public ResponseEntity<CursorPage<CustomerResponse>> findCustomers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<CustomerResponse> customers = customerService.findCustomersAfter(after, limit);
         return ResponseEntity.ok(customers);
     }
 
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        StreamingResponseBody body = outputStream -> customerService.exportCustomers(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
-        customerService.deleteCustomer(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<CustomerDeletionResult> deleteCustomer(@PathVariable Long id) {
+        return ResponseEntity.ok(customerService.deleteCustomer(id));
     }
 }
@@ -0,0 +1,45 @@
+package com.example.cliente.controller;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.cliente.analytics.AnalyticsDimension;
+import com.example.cliente.analytics.OrderAnalytics;
+import com.example.cliente.dto.RevenueReport;
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Consultas do motor de análise; existe só com {@code orders.analytics.enabled=true}.
+ */
+@RestController
+@RequestMapping("/orders/analytics")
+@ConditionalOnProperty(name = "orders.analytics.enabled", havingValue = "true")
+public class OrderAnalyticsController {
+
+    private final OrderAnalytics orderAnalytics;
+
+    public OrderAnalyticsController(OrderAnalytics orderAnalytics) {
+        this.orderAnalytics = orderAnalytics;
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<RevenueReport> getRevenue(
+            @RequestParam(defaultValue = "status") List<String> groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) OrderStatus status) {
+        Set<AnalyticsDimension> dimensions = EnumSet.noneOf(AnalyticsDimension.class);
+        groupBy.forEach(value -> dimensions.add(AnalyticsDimension.parse(value)));
+        return ResponseEntity.ok(orderAnalytics.revenue(dimensions, from, to, status));
+    }
+}
@@ -1,57 +1,161 @@
 package com.example.cliente.controller;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.cliente.dto.CursorPage;
+import com.example.cliente.dto.OrderPatch;
+import com.example.cliente.dto.OrderQuery;
+import com.example.cliente.dto.OrderReceipt;
+import com.example.cliente.dto.OrderResponse;
+import com.example.cliente.dto.OrderStatsBackfillResult;
+import com.example.cliente.dto.OrderStatsBucket;
+import com.example.cliente.dto.OrderStatusTransition;
+import com.example.cliente.dto.OrderStatusTransitionResult;
+import com.example.cliente.exception.BadRequestException;
 import com.example.cliente.exception.NotFoundException;
+import com.example.cliente.journal.OrderJournal;
+import com.example.cliente.service.OrderIntake;
 import com.example.cliente.service.OrderService;
+import com.example.cliente.service.OrderStatsService;
+import com.example.cliente.stats.StatsBucket;
 import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIntake orderIntake;
+    private final OrderStatsService orderStatsService;
+    private final OrderJournal orderJournal;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderIntake orderIntake, OrderStatsService orderStatsService,
+            ObjectProvider<OrderJournal> orderJournal) {
         this.orderService = orderService;
+        this.orderIntake = orderIntake;
+        this.orderStatsService = orderStatsService;
+        // Presente só com orders.journal.enabled=true
+        this.orderJournal = orderJournal.getIfAvailable();
     }
 
+    /**
+     * Sem filtro, pagina por ID ({@code after} é o último ID). Com {@code status},
+     * {@code customerId}, {@code from} ou {@code to}, pagina por data do pedido e
+     * {@code after} é o {@code nextCursor} opaco da página anterior.
+     */
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
+    public ResponseEntity<CursorPage<OrderResponse>> getOrders(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderQuery query = new OrderQuery(status, customerId, from, to);
+        CursorPage<OrderResponse> orders = query.isEmpty()
+                ? orderService.getOrdersAfter(parseId(after), limit)
+                : orderService.searchOrders(query, after, limit);
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    private static Long parseId(String after) {
+        try {
+            return after == null ? null : Long.valueOf(after);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor de paginação inválido: " + after);
+        }
+    }
+
+    /**
+     * Quantidade, soma e ticket médio por intervalo ({@code hour}, {@code day} ou
+     * {@code month}) e status, lidos dos agregados por hora.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<OrderStatsBucket>> getOrderStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "day") String bucket) {
+        return ResponseEntity.ok(orderStatsService.stats(from, to, StatsBucket.parse(bucket)));
+    }
+
+    @PostMapping("/stats/backfill")
+    public ResponseEntity<OrderStatsBackfillResult> backfillOrderStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(orderStatsService.backfill(from, to));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = outputStream -> orderService.exportOrders(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Leitura servida pelo cache {@code orders}; um {@code If-None-Match} com a versão
+     * atual recebe 304 sem ir ao banco.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
-        Optional<Order> order = orderService.getOrderById(id);
-        return order.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
+        Optional<OrderResponse> order = orderService.getOrderById(id);
+        return order.map(value -> ConditionalResponses.ok(value.version(), value.updatedAt()).body(value))
                 .orElseThrow(() -> new NotFoundException("Pedido não encontrado com o ID: " + id));
     }
 
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
-        Order createdOrder = orderService.createOrder(order);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+    public ResponseEntity<?> createOrder(@RequestBody Order order) {
+        if (orderJournal != null) {
+            long sequence = orderJournal.append(order);
+            return new ResponseEntity<>(new OrderReceipt(sequence), HttpStatus.ACCEPTED);
+        }
+        Order createdOrder = orderIntake.createOrder(order);
+        return new ResponseEntity<>(OrderResponse.from(createdOrder), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Order> updateOrder(@PathVariable Long id, @RequestBody Order order) {
+    public ResponseEntity<OrderResponse> updateOrder(@PathVariable Long id, @RequestBody Order order) {
         Order updatedOrder = orderService.updateOrder(id, order);
         if (updatedOrder != null) {
-            return new ResponseEntity<>(updatedOrder, HttpStatus.OK);
+            return new ResponseEntity<>(OrderResponse.from(updatedOrder), HttpStatus.OK);
         } else {
             throw new NotFoundException("Pedido não encontrado com o ID: " + id);
         }
     }
 
+    /**
+     * Atualização parcial com controle otimista: o {@code If-Match} traz o ETag lido
+     * antes. Responde 204 com o novo ETag, ou 409 se o pedido mudou nesse meio tempo.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchOrder(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody OrderPatch patch) {
+        long version = orderService.patchOrder(id, ConditionalResponses.expectedVersion(ifMatch), patch);
+        return ResponseEntity.noContent().eTag(Long.toString(version)).build();
+    }
+
+    @PostMapping("/status-transitions")
+    public ResponseEntity<OrderStatusTransitionResult> transitionStatus(@RequestBody OrderStatusTransition transition) {
+        return new ResponseEntity<>(orderService.transitionStatus(transition), HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         orderService.deleteOrder(id);
@@ -0,0 +1,35 @@
+package com.example.cliente.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados paginada por cursor (keyset).
+ *
+ * O {@code nextCursor} é o valor a ser enviado em {@code ?after=} para buscar a
+ * próxima página, ou {@code null} quando não há mais resultados.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * Limita o tamanho de página solicitado ao intervalo [1, MAX_LIMIT].
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou {@code limit + 1} linhas:
+     * a linha excedente só indica que existe uma próxima página.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, ?> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, String.valueOf(cursorOf.apply(items.get(limit - 1))));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.cliente.dto;
+
+import java.util.List;
+
+/**
+ * Resultado do cadastro de um cliente dentro de um lote, na mesma posição
+ * ({@code index}) em que ele foi enviado.
+ */
+public record CustomerBatchResult(int index, Status status, Long id, List<String> errors) {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        CONFLICT
+    }
+
+    public static CustomerBatchResult created(int index, Long id) {
+        return new CustomerBatchResult(index, Status.CREATED, id, List.of());
+    }
+
+    public static CustomerBatchResult invalid(int index, List<String> errors) {
+        return new CustomerBatchResult(index, Status.INVALID, null, errors);
+    }
+
+    public static CustomerBatchResult conflict(int index, String error) {
+        return new CustomerBatchResult(index, Status.CONFLICT, null, List.of(error));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.cliente.dto;
+
+/**
+ * Resultado da exclusão de um cliente: quantos pedidos e itens de pedido foram
+ * excluídos junto com ele.
+ */
+public record CustomerDeletionResult(Long id, int deletedOrders, int deletedOrderItems) {
+}
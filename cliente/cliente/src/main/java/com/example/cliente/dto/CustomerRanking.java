@@ -0,0 +1,22 @@
+package com.example.cliente.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.cliente.event.CustomerSummary;
+
+/**
+ * Uma posição de GET /customers/top: o cliente e o resumo dos seus pedidos.
+ */
+public record CustomerRanking(
+        int rank,
+        Long customerId,
+        long orderCount,
+        BigDecimal lifetimeValue,
+        LocalDateTime lastOrderDate) {
+
+    public static CustomerRanking of(int rank, CustomerSummary summary) {
+        return new CustomerRanking(rank, summary.id(), summary.orderCount(), summary.lifetimeValue(),
+                summary.lastOrderDate());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cliente.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.cliente.model.Customer;
+
+/**
+ * Representação de leitura de um cliente, sem a coleção de pedidos, mas com o resumo
+ * deles: quantidade, soma de {@code totalValue} ({@code lifetimeValue}) e data do último.
+ *
+ * Usada diretamente como projeção nas consultas ({@code SELECT new ...}), de
+ * forma que apenas as colunas retornadas sejam lidas do banco.
+ */
+public record CustomerResponse(
+        Long id,
+        String name,
+        String email,
+        String phone,
+        String documentNumber,
+        LocalDate registrationDate,
+        long orderCount,
+        BigDecimal lifetimeValue,
+        LocalDateTime lastOrderDate) {
+
+    public static CustomerResponse from(Customer customer) {
+        return new CustomerResponse(
+                customer.getId(),
+                customer.getName(),
+                customer.getEmail(),
+                customer.getPhone(),
+                customer.getDocumentNumber(),
+                customer.getRegistrationDate(),
+                customer.getOrderCount(),
+                customer.getLifetimeValue(),
+                customer.getLastOrderDate());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.cliente.dto;
+
+/**
+ * Resultado da busca de clientes por nome/e-mail, servido direto do índice em memória.
+ */
+public record CustomerSearchHit(Long id, String name, String email) {
+}
@@ -0,0 +1,35 @@
+package com.example.cliente.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição na listagem de pedidos ordenada por {@code (orderDate, id)}: a data e o ID
+ * do último pedido lido. Vai ao cliente como texto opaco (Base64 URL-safe), para que
+ * o formato possa mudar sem quebrar quem só repassa o {@code nextCursor}.
+ */
+public record OrderDateCursor(LocalDateTime orderDate, Long id) {
+
+    public String encode() {
+        String raw = orderDate + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException se o texto não for um cursor gerado por {@link #encode()}
+     */
+    public static OrderDateCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            return new OrderDateCursor(LocalDateTime.parse(raw.substring(0, comma)), Long.valueOf(raw.substring(comma + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.cliente.dto;
+
+import java.math.BigDecimal;
+
+import com.example.cliente.model.OrderItem;
+
+/**
+ * Representação de leitura de um item de pedido, sem a referência de volta ao pedido.
+ */
+public record OrderItemResponse(Long id, int quantity, BigDecimal unitPrice) {
+
+    public static OrderItemResponse from(OrderItem item) {
+        return new OrderItemResponse(item.getId(), item.getQuantity(), item.getUnitPrice());
+    }
+}
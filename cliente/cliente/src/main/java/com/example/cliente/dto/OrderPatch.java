@@ -0,0 +1,19 @@
+package com.example.cliente.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Corpo do PATCH de pedido: só os campos presentes (não nulos) são alterados.
+ */
+public record OrderPatch(
+        LocalDateTime orderDate,
+        BigDecimal totalValue,
+        OrderStatus status) {
+
+    public boolean isEmpty() {
+        return orderDate == null && totalValue == null && status == null;
+    }
+}
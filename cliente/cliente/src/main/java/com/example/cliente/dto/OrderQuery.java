@@ -0,0 +1,15 @@
+package com.example.cliente.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Filtro de GET /orders: status e/ou cliente, e o período {@code [from, to)} da data do pedido.
+ */
+public record OrderQuery(OrderStatus status, Long customerId, LocalDateTime from, LocalDateTime to) {
+
+    public boolean isEmpty() {
+        return status == null && customerId == null && from == null && to == null;
+    }
+}
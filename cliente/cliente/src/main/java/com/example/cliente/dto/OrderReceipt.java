@@ -0,0 +1,8 @@
+package com.example.cliente.dto;
+
+/**
+ * Confirmação de um pedido aceito pelo journal: já está em disco, mas ainda
+ * não foi gravado no banco. {@code sequence} é a posição do pedido no journal.
+ */
+public record OrderReceipt(long sequence) {
+}
@@ -0,0 +1,55 @@
+package com.example.cliente.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Representação de leitura de um pedido. O cliente é referenciado apenas pelo ID.
+ *
+ * Listagens e exportação usam o construtor sem itens como projeção; o campo
+ * {@code orderItems} só é preenchido (e serializado) no detalhe do pedido.
+ *
+ * {@code version} e {@code updatedAt} não vão no JSON: viram os cabeçalhos
+ * {@code ETag} e {@code Last-Modified} do detalhe.
+ */
+public record OrderResponse(
+        Long id,
+        Long customerId,
+        LocalDateTime orderDate,
+        BigDecimal totalValue,
+        OrderStatus status,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<OrderItemResponse> orderItems,
+        @JsonIgnore Long version,
+        @JsonIgnore Instant updatedAt) {
+
+    public OrderResponse(Long id, Long customerId, LocalDateTime orderDate, BigDecimal totalValue, OrderStatus status) {
+        this(id, customerId, orderDate, totalValue, status, null);
+    }
+
+    public OrderResponse(Long id, Long customerId, LocalDateTime orderDate, BigDecimal totalValue, OrderStatus status,
+            List<OrderItemResponse> orderItems) {
+        this(id, customerId, orderDate, totalValue, status, orderItems, null, null);
+    }
+
+    public static OrderResponse from(Order order) {
+        List<OrderItemResponse> items = order.getOrderItems() == null
+                ? null
+                : order.getOrderItems().stream().map(OrderItemResponse::from).toList();
+        return new OrderResponse(
+                order.getId(),
+                order.getCustomer() == null ? null : order.getCustomer().getId(),
+                order.getOrderDate(),
+                order.getTotalValue(),
+                order.getStatus(),
+                items,
+                order.getVersion(),
+                order.getUpdatedAt());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.cliente.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Resultado da reconstrução dos agregados de estatística: o período {@code [from, to)},
+ * os dias processados (uma transação cada) e as linhas de hora/status gravadas.
+ */
+public record OrderStatsBackfillResult(LocalDate from, LocalDate to, int days, int buckets) {
+}
@@ -0,0 +1,18 @@
+package com.example.cliente.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Uma linha de GET /orders/stats: pedidos de um status no intervalo que começa em
+ * {@code bucketStart}, com a soma de {@code totalValue} e o ticket médio.
+ */
+public record OrderStatsBucket(
+        LocalDateTime bucketStart,
+        OrderStatus status,
+        long orderCount,
+        BigDecimal totalValue,
+        BigDecimal averageTicket) {
+}
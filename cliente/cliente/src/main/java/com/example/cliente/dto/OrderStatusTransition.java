@@ -0,0 +1,29 @@
+package com.example.cliente.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Corpo de POST /orders/status-transitions: move de {@code from} para {@code to} os
+ * pedidos listados em {@code ids} ou, sem IDs, os que atendem ao filtro
+ * ({@code customerId}, {@code orderDateFrom}, {@code orderDateTo}).
+ * Pedidos que não estão em {@code from} ficam como estão.
+ */
+public record OrderStatusTransition(
+        OrderStatus from,
+        OrderStatus to,
+        List<Long> ids,
+        Long customerId,
+        LocalDateTime orderDateFrom,
+        LocalDateTime orderDateTo) {
+
+    public boolean hasIds() {
+        return ids != null && !ids.isEmpty();
+    }
+
+    public boolean hasFilter() {
+        return customerId != null || orderDateFrom != null || orderDateTo != null;
+    }
+}
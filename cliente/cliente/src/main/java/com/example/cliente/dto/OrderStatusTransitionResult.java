@@ -0,0 +1,10 @@
+package com.example.cliente.dto;
+
+/**
+ * Resultado de uma transição de status em massa: {@code requested} é o número de IDs
+ * enviados (nulo quando a seleção foi por filtro) e {@code updated} o de pedidos
+ * alterados; a diferença são pedidos inexistentes ou fora do status de origem.
+ * {@code statements} é o número de UPDATEs executados (um por bloco de IDs).
+ */
+public record OrderStatusTransitionResult(Integer requested, int updated, int statements) {
+}
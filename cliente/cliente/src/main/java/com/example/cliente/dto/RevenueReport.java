@@ -0,0 +1,11 @@
+package com.example.cliente.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resposta de GET /orders/analytics/revenue. {@code asOf} é o momento da última
+ * atualização da cópia em memória e {@code scannedOrders}, quantos pedidos ela tinha.
+ */
+public record RevenueReport(Instant asOf, long scannedOrders, List<RevenueRow> rows) {
+}
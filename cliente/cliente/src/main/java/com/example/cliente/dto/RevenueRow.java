@@ -0,0 +1,22 @@
+package com.example.cliente.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import com.example.cliente.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Uma linha de GET /orders/analytics/revenue: quantidade de pedidos, soma de
+ * {@code totalValue} e ticket médio de um grupo. Só as dimensões agrupadas vêm
+ * preenchidas ({@code cohort} é o mês de cadastro do cliente).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RevenueRow(
+        OrderStatus status,
+        YearMonth orderMonth,
+        YearMonth cohort,
+        long orderCount,
+        BigDecimal totalValue,
+        BigDecimal averageTicket) {
+}
@@ -0,0 +1,20 @@
+package com.example.cliente.event;
+
+/**
+ * Publicado pelo {@code CustomerService} a cada cadastro, atualização ou exclusão
+ * de cliente. {@code before} é nulo no cadastro e {@code after} é nulo na exclusão.
+ */
+public record CustomerChangedEvent(CustomerSnapshot before, CustomerSnapshot after) {
+
+    public static CustomerChangedEvent created(CustomerSnapshot after) {
+        return new CustomerChangedEvent(null, after);
+    }
+
+    public static CustomerChangedEvent updated(CustomerSnapshot before, CustomerSnapshot after) {
+        return new CustomerChangedEvent(before, after);
+    }
+
+    public static CustomerChangedEvent deleted(CustomerSnapshot before) {
+        return new CustomerChangedEvent(before, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.cliente.event;
+
+import com.example.cliente.model.Customer;
+
+/**
+ * Cópia imutável dos campos de um cliente usados pelos índices em memória.
+ */
+public record CustomerSnapshot(Long id, String name, String email, String documentNumber) {
+
+    public static CustomerSnapshot of(Customer customer) {
+        return new CustomerSnapshot(customer.getId(), customer.getName(), customer.getEmail(),
+                customer.getDocumentNumber());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.cliente.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Resumo dos pedidos de um cliente, como gravado no banco depois de uma alteração, com a
+ * versão do cliente nesse momento: cada alteração do resumo avança a versão, então ela
+ * ordena resumos do mesmo cliente entregues fora de ordem.
+ */
+public record CustomerSummary(Long id, long orderCount, BigDecimal lifetimeValue, LocalDateTime lastOrderDate,
+        Long version) {
+}
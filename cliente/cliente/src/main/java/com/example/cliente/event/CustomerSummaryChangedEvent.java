@@ -0,0 +1,10 @@
+package com.example.cliente.event;
+
+import java.util.List;
+
+/**
+ * Publicado a cada gravação de pedidos que altera o resumo dos clientes, com os valores
+ * já atualizados (não a variação), então aplicar o mesmo evento duas vezes não muda o resultado.
+ */
+public record CustomerSummaryChangedEvent(List<CustomerSummary> summaries) {
+}
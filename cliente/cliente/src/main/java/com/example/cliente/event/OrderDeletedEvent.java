@@ -0,0 +1,8 @@
+package com.example.cliente.event;
+
+/**
+ * Publicado pelo {@code OrderService} a cada exclusão de pedido. A exclusão dos pedidos
+ * junto com o cliente não publica este evento, só o {@link CustomerChangedEvent}.
+ */
+public record OrderDeletedEvent(Long id) {
+}
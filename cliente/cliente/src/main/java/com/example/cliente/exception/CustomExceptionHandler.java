@@ -1,5 +1,6 @@
 package com.example.cliente.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,7 +10,12 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,11 +30,64 @@ public class CustomExceptionHandler {
         return new ResponseEntity<>(apiErrorMessage, new HttpHeaders(), apiErrorMessage.getStatus());
     }
     
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Object> handleBadRequestException(
+            BadRequestException exception, WebRequest request) {
+
+        ApiErrorMessage apiErrorMessage = new ApiErrorMessage(HttpStatus.BAD_REQUEST, exception.getMessage());
+
+        return new ResponseEntity<>(apiErrorMessage, new HttpHeaders(), apiErrorMessage.getStatus());
+    }
+    
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Object> handleConflictException(
+            ConflictException exception, WebRequest request) {
+
+        ApiErrorMessage apiErrorMessage = new ApiErrorMessage(HttpStatus.CONFLICT, exception.getMessage());
+
+        return new ResponseEntity<>(apiErrorMessage, new HttpHeaders(), apiErrorMessage.getStatus());
+    }
+    
+    // Outra requisição alterou o registro entre a leitura e a gravação (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException exception, WebRequest request) {
+
+        ApiErrorMessage apiErrorMessage = new ApiErrorMessage(HttpStatus.CONFLICT, "O registro foi alterado por outra requisição, tente novamente.");
+
+        return new ResponseEntity<>(apiErrorMessage, new HttpHeaders(), apiErrorMessage.getStatus());
+    }
+    
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<Object> handleHttpMessageNotReadable(
             HttpMessageNotReadableException exception, WebRequest request) {
 
-        ApiErrorMessage apiErrorMessage = new ApiErrorMessage(HttpStatus.BAD_REQUEST, "O corpo da requisição é obrigatório!");
+        String message = "O corpo da requisição é obrigatório!";
+        // Valor fora do enum (por exemplo, um status de pedido desconhecido)
+        if (exception.getCause() instanceof InvalidFormatException invalid && invalid.getTargetType().isEnum()) {
+            message = "Valor inválido: " + invalid.getValue() + ". Valores aceitos: "
+                    + Arrays.toString(invalid.getTargetType().getEnumConstants());
+        }
+        // Valor recusado pelo setter da entidade (por exemplo, preço com mais de duas casas decimais)
+        if (exception.getCause() instanceof JsonMappingException mapping
+                && mapping.getCause() instanceof IllegalArgumentException rejected) {
+            message = rejected.getMessage();
+        }
+        ApiErrorMessage apiErrorMessage = new ApiErrorMessage(HttpStatus.BAD_REQUEST, message);
+
+        return new ResponseEntity<>(apiErrorMessage, new HttpHeaders(), apiErrorMessage.getStatus());
+    }
+    
+    // Parâmetro de URL fora do tipo esperado (por exemplo, ?status= com um valor desconhecido)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleMethodArgumentTypeMismatch(
+            MethodArgumentTypeMismatchException exception, WebRequest request) {
+
+        String message = "Valor inválido para o parâmetro " + exception.getName() + ": " + exception.getValue();
+        if (exception.getRequiredType() != null && exception.getRequiredType().isEnum()) {
+            message += ". Valores aceitos: " + Arrays.toString(exception.getRequiredType().getEnumConstants());
+        }
+        ApiErrorMessage apiErrorMessage = new ApiErrorMessage(HttpStatus.BAD_REQUEST, message);
 
         return new ResponseEntity<>(apiErrorMessage, new HttpHeaders(), apiErrorMessage.getStatus());
     }
@@ -48,6 +107,32 @@ public class CustomExceptionHandler {
         return new ResponseEntity<>(apiErrorMessage, apiErrorMessage.getStatus());
     }
     
+    /**
+     * Nenhuma conexão do pool ficou livre dentro de {@code connection-timeout}: o serviço está
+     * saturado, e o cliente pode tentar de novo em seguida.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Object> handleCannotCreateTransaction(
+            CannotCreateTransactionException exception, WebRequest request) {
+
+        ApiErrorMessage apiErrorMessage = new ApiErrorMessage(HttpStatus.SERVICE_UNAVAILABLE, "Serviço sobrecarregado, tente novamente.");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(apiErrorMessage, headers, apiErrorMessage.getStatus());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Object> handleServiceUnavailableException(
+            ServiceUnavailableException exception, WebRequest request) {
+
+        ApiErrorMessage apiErrorMessage = new ApiErrorMessage(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(apiErrorMessage, headers, apiErrorMessage.getStatus());
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAllExceptions(
             Exception exception, WebRequest request) {
@@ -0,0 +1,117 @@
+package com.example.cliente.index;
+
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSnapshot;
+
+/**
+ * Índice CPF → ID de cliente. O CPF (11 dígitos) é empacotado em um {@code long}
+ * e guardado em um {@link LongLongHashMap}, então a busca é O(1) sem alocação.
+ *
+ * Atualizado só depois do commit da transação que alterou o cliente.
+ */
+@Component
+public class CpfIndex implements CustomerIndex {
+
+    private static final long MISSING = -1L;
+
+    private final LongLongHashMap idsByCpf = new LongLongHashMap(1 << 16);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Converte um CPF, formatado ou só com dígitos, para o seu valor numérico.
+     * Retorna -1 se não tiver exatamente 11 dígitos.
+     */
+    public static long pack(String documentNumber) {
+        if (documentNumber == null) {
+            return -1L;
+        }
+        long packed = 0;
+        int digits = 0;
+        for (int i = 0; i < documentNumber.length(); i++) {
+            char c = documentNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                packed = packed * 10 + (c - '0');
+                digits++;
+            } else if (c != '.' && c != '-') {
+                return -1L;
+            }
+        }
+        return digits == 11 ? packed : -1L;
+    }
+
+    public OptionalLong find(String documentNumber) {
+        long cpf = pack(documentNumber);
+        if (cpf < 0) {
+            return OptionalLong.empty();
+        }
+        lock.readLock().lock();
+        try {
+            long id = idsByCpf.get(cpf, MISSING);
+            return id == MISSING ? OptionalLong.empty() : OptionalLong.of(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idsByCpf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            idsByCpf.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(CustomerSnapshot customer) {
+        long cpf = pack(customer.documentNumber());
+        if (cpf < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            idsByCpf.put(cpf, customer.id());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.before() != null) {
+                long cpf = pack(event.before().documentNumber());
+                // Só remove se o CPF ainda aponta para este cliente
+                if (cpf >= 0 && idsByCpf.get(cpf, MISSING) == event.before().id()) {
+                    idsByCpf.remove(cpf);
+                }
+            }
+            if (event.after() != null) {
+                long cpf = pack(event.after().documentNumber());
+                if (cpf >= 0) {
+                    idsByCpf.put(cpf, event.after().id());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.cliente.index;
+
+import com.example.cliente.event.CustomerSnapshot;
+
+/**
+ * Índice em memória sobre os clientes, reconstruído na inicialização pelo
+ * {@link CustomerIndexLoader} e mantido a partir dos eventos de alteração de cliente.
+ */
+public interface CustomerIndex {
+
+    void clear();
+
+    void add(CustomerSnapshot customer);
+}
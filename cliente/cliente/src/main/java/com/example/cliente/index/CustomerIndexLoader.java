@@ -0,0 +1,59 @@
+package com.example.cliente.index;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cliente.event.CustomerSnapshot;
+import com.example.cliente.repository.CustomerRepository;
+
+/**
+ * Reconstrói todos os {@link CustomerIndex} com uma única leitura em cursor da
+ * tabela de clientes, antes de o servidor web começar a aceitar requisições.
+ */
+@Component
+public class CustomerIndexLoader implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerIndexLoader.class);
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<CustomerIndex> indexes;
+
+    public CustomerIndexLoader(CustomerRepository customerRepository, TransactionTemplate transactionTemplate,
+            List<CustomerIndex> indexes) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.indexes = indexes;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        indexes.forEach(CustomerIndex::clear);
+        Long loaded = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<CustomerSnapshot> customers = customerRepository.streamSnapshots()) {
+                Iterator<CustomerSnapshot> iterator = customers.iterator();
+                while (iterator.hasNext()) {
+                    CustomerSnapshot customer = iterator.next();
+                    indexes.forEach(index -> index.add(customer));
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Índices de clientes reconstruídos: {} clientes em {} ms", loaded,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
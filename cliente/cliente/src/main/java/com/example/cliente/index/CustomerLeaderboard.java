@@ -0,0 +1,234 @@
+package com.example.cliente.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSummary;
+import com.example.cliente.event.CustomerSummaryChangedEvent;
+import com.example.cliente.repository.CustomerRepository;
+
+/**
+ * Ranking dos clientes por {@code lifetimeValue} (soma dos pedidos), limitado aos
+ * {@code customers.top.capacity} primeiros: um conjunto ordenado do maior para o menor,
+ * mais um mapa ID → entrada para achar o cliente alterado sem percorrer o conjunto.
+ *
+ * Com o conjunto completo, um cliente de fora nunca vale mais que o último de dentro;
+ * assim um cliente que sobe entra no lugar do último sem consultar o banco. Quando um
+ * cliente de dentro desce abaixo do último ou sai com o conjunto cheio, alguém de fora
+ * pode ter passado à frente: o conjunto é marcado como incompleto e recarregado do banco
+ * (pelo índice de {@code lifetime_value}) na próxima leitura.
+ *
+ * A consulta da recarga roda fora do lock; os eventos que chegam enquanto ela roda são
+ * guardados e reaplicados sobre o resultado antes de ele entrar no lugar do conjunto.
+ *
+ * Atualizado só depois do commit da transação que alterou os pedidos ou o cliente, com
+ * os valores já gravados, não com a variação. Commits do mesmo cliente em threads
+ * diferentes podem entregar os eventos fora de ordem: para um cliente do conjunto, um
+ * resumo com versão igual ou anterior à da entrada é ignorado. De um cliente de fora só
+ * se guarda o necessário para compará-lo com o último; um resumo atrasado dele (ou de um
+ * cliente já excluído) pode entrar no conjunto até a próxima recarga.
+ */
+@Component
+public class CustomerLeaderboard {
+
+    private static final Comparator<CustomerSummary> HIGHEST_FIRST = Comparator
+            .comparing(CustomerSummary::lifetimeValue, Comparator.reverseOrder())
+            .thenComparing(CustomerSummary::id);
+
+    private final CustomerRepository customerRepository;
+    private final NavigableSet<CustomerSummary> ranking = new TreeSet<>(HIGHEST_FIRST);
+    private final Map<Long, CustomerSummary> entries = new HashMap<>();
+    // Alterações recebidas durante uma recarga; summary nulo é exclusão
+    private final List<Change> changesDuringReload = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean complete;
+    private int reloadsInProgress;
+
+    @Value("${customers.top.capacity:1000}")
+    private int capacity = 1000;
+
+    private record Change(Long id, CustomerSummary summary) {
+    }
+
+    public CustomerLeaderboard(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Os {@code limit} primeiros (no máximo {@link #capacity()}), recarregando o
+     * conjunto do banco se ele estiver incompleto.
+     */
+    public List<CustomerSummary> top(int limit) {
+        lock.readLock().lock();
+        try {
+            if (complete) {
+                return ranking.stream().limit(limit).toList();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (complete) {
+                return ranking.stream().limit(limit).toList();
+            }
+            reloadsInProgress++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<CustomerSummary> loaded;
+        try {
+            loaded = customerRepository.findTopByLifetimeValue(PageRequest.of(0, capacity));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                endReload();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            // Outra recarga concorrente pode ter terminado antes
+            if (!complete) {
+                replace(loaded);
+            }
+            endReload();
+            return ranking.stream().limit(limit).toList();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerSummaryChanged(CustomerSummaryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (CustomerSummary summary : event.summaries()) {
+                apply(new Change(summary.id(), summary));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.after() != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(new Change(event.before().id(), null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        if (complete) {
+            if (change.summary() == null) {
+                remove(change.id());
+            } else {
+                update(change.summary());
+            }
+        } else if (reloadsInProgress > 0) {
+            // A consulta em andamento pode ter lido o banco antes deste commit
+            changesDuringReload.add(change);
+        }
+        // Incompleto e sem recarga em andamento: a próxima recarga já lê este commit
+    }
+
+    private void replace(List<CustomerSummary> loaded) {
+        ranking.clear();
+        entries.clear();
+        for (CustomerSummary summary : loaded) {
+            put(summary);
+        }
+        complete = true;
+        // Mais recentes que a leitura, ou ignorados pela versão se ela já os incluía
+        List<Change> changes = new ArrayList<>(changesDuringReload);
+        changesDuringReload.clear();
+        for (Change change : changes) {
+            apply(change);
+        }
+    }
+
+    private void endReload() {
+        reloadsInProgress--;
+        if (reloadsInProgress == 0) {
+            changesDuringReload.clear();
+        }
+    }
+
+    private static long version(CustomerSummary summary) {
+        return summary.version() == null ? 0 : summary.version();
+    }
+
+    private void update(CustomerSummary summary) {
+        CustomerSummary current = entries.get(summary.id());
+        // Entregue fora de ordem: a entrada já tem este commit ou um posterior
+        if (current != null && version(summary) <= version(current)) {
+            return;
+        }
+        if (summary.orderCount() == 0 || summary.lifetimeValue() == null) {
+            if (current != null) {
+                remove(summary.id());
+            }
+            return;
+        }
+        if (current != null) {
+            CustomerSummary last = ranking.last();
+            ranking.remove(current);
+            entries.remove(summary.id());
+            // Desceu abaixo do antigo último com o conjunto cheio: alguém de fora pode valer mais
+            if (entries.size() + 1 >= capacity && HIGHEST_FIRST.compare(summary, last) > 0) {
+                complete = false;
+                return;
+            }
+            put(summary);
+            return;
+        }
+        if (ranking.size() < capacity) {
+            put(summary);
+        } else if (HIGHEST_FIRST.compare(summary, ranking.last()) < 0) {
+            entries.remove(ranking.pollLast().id());
+            put(summary);
+        }
+    }
+
+    private void remove(Long id) {
+        CustomerSummary current = entries.remove(id);
+        if (current == null) {
+            return;
+        }
+        ranking.remove(current);
+        // Com o conjunto cheio, a vaga aberta é de alguém que não está em memória
+        if (ranking.size() + 1 >= capacity) {
+            complete = false;
+        }
+    }
+
+    private void put(CustomerSummary summary) {
+        ranking.add(summary);
+        entries.put(summary.id(), summary);
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.cliente.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.cliente.dto.CustomerSearchHit;
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSnapshot;
+
+/**
+ * Índice de busca por prefixo sobre nome e e-mail dos clientes.
+ *
+ * Os termos são normalizados (minúsculas, sem acentos) e guardados em um
+ * dicionário ordenado termo → IDs; a busca por prefixo é uma faixa do
+ * dicionário. Cada termo da consulta precisa casar com algum termo do cliente,
+ * e os resultados são ordenados por relevância com um heap limitado ao top-K.
+ *
+ * Só a faixa do termo mais raro da consulta é percorrida: cada candidato é
+ * conferido contra os demais termos nos próprios termos do cliente, e a faixa é
+ * abandonada quando nenhum candidato restante consegue entrar no top-K.
+ *
+ * Atualizado só depois do commit da transação que alterou o cliente.
+ */
+@Component
+public class CustomerSearchIndex implements CustomerIndex {
+
+    public static final int MIN_QUERY_LENGTH = 2;
+    public static final int MAX_RESULTS = 50;
+
+    // Pesos: termo idêntico vale mais que prefixo; nome começando pelo primeiro termo desempata
+    private static final int EXACT_TERM_SCORE = 3;
+    private static final int PREFIX_TERM_SCORE = 2;
+    private static final int NAME_PREFIX_BONUS = 1;
+
+    private static final Comparator<ScoredEntry> BEST_FIRST = Comparator
+            .comparingInt(ScoredEntry::score).reversed()
+            .thenComparingInt(scored -> scored.entry().foldedName().length())
+            .thenComparingLong(scored -> scored.entry().id());
+
+    private final NavigableMap<String, Set<Long>> idsByTerm = new TreeMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Entry(long id, String name, String email, String foldedName, Set<String> terms) {
+    }
+
+    private record ScoredEntry(Entry entry, int score) {
+    }
+
+    /**
+     * Converte para minúsculas e remove acentos ("João" → "joao").
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Termos da consulta: separados por espaço, sem pontuação nas pontas. O
+     * {@code @} e o {@code .} internos são mantidos para casar com o e-mail inteiro.
+     */
+    static List<String> queryTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String raw : fold(query).trim().split("\\s+")) {
+            int start = 0;
+            int end = raw.length();
+            while (start < end && !Character.isLetterOrDigit(raw.charAt(start))) {
+                start++;
+            }
+            while (end > start && !Character.isLetterOrDigit(raw.charAt(end - 1))) {
+                end--;
+            }
+            if (end > start) {
+                terms.add(raw.substring(start, end));
+            }
+        }
+        return terms;
+    }
+
+    private static Set<String> documentTerms(String foldedName, String foldedEmail) {
+        Set<String> terms = new LinkedHashSet<>();
+        splitWords(foldedName, terms);
+        if (!foldedEmail.isEmpty()) {
+            terms.add(foldedEmail);
+            splitWords(foldedEmail, terms);
+        }
+        return terms;
+    }
+
+    private static void splitWords(String text, Set<String> terms) {
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add(word);
+            }
+        }
+    }
+
+    public List<CustomerSearchHit> search(String query, int limit) {
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        int k = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        lock.readLock().lock();
+        try {
+            String rarest = rarestTerm(terms);
+            if (rarest == null) {
+                return List.of();
+            }
+
+            // Heap com o pior resultado no topo: nunca guarda mais que k entradas
+            PriorityQueue<ScoredEntry> top = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+            String firstTerm = terms.get(0);
+            // Depois do termo idêntico, que abre a faixa, nenhum candidato passa desta pontuação
+            int prefixMaxScore = PREFIX_TERM_SCORE + (terms.size() - 1) * EXACT_TERM_SCORE + NAME_PREFIX_BONUS;
+            for (Map.Entry<String, Set<Long>> match : range(rarest).entrySet()) {
+                if (match.getKey().length() > rarest.length() && top.size() == k && top.peek().score() > prefixMaxScore) {
+                    break;
+                }
+                for (Long id : match.getValue()) {
+                    Entry entry = entries.get(id);
+                    // Cliente com vários termos na faixa: pontuado só no primeiro deles
+                    if (!match.getKey().equals(firstTermWithPrefix(entry, rarest))) {
+                        continue;
+                    }
+                    int score = score(entry, terms);
+                    if (score == 0) {
+                        continue;
+                    }
+                    score += entry.foldedName().startsWith(firstTerm) ? NAME_PREFIX_BONUS : 0;
+                    top.add(new ScoredEntry(entry, score));
+                    if (top.size() > k) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<ScoredEntry> ranked = new ArrayList<>(top);
+            ranked.sort(BEST_FIRST);
+            List<CustomerSearchHit> hits = new ArrayList<>(ranked.size());
+            for (ScoredEntry scored : ranked) {
+                hits.add(new CustomerSearchHit(scored.entry().id(), scored.entry().name(), scored.entry().email()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableMap<String, Set<Long>> range(String prefix) {
+        return idsByTerm.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    // Termo da consulta com menos IDs na sua faixa, ou null se algum não casa com nada
+    private String rarestTerm(List<String> terms) {
+        String rarest = null;
+        long fewest = Long.MAX_VALUE;
+        for (String term : terms) {
+            long count = 0;
+            for (Set<Long> ids : range(term).values()) {
+                count += ids.size();
+                if (count >= fewest) {
+                    break;
+                }
+            }
+            if (count == 0) {
+                return null;
+            }
+            if (count < fewest) {
+                fewest = count;
+                rarest = term;
+            }
+        }
+        return rarest;
+    }
+
+    private static String firstTermWithPrefix(Entry entry, String prefix) {
+        String first = null;
+        for (String term : entry.terms()) {
+            if (term.startsWith(prefix) && (first == null || term.compareTo(first) < 0)) {
+                first = term;
+            }
+        }
+        return first;
+    }
+
+    // Soma, para cada termo da consulta, o melhor termo do cliente; 0 se algum não casa
+    private static int score(Entry entry, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String documentTerm : entry.terms()) {
+                if (documentTerm.equals(term)) {
+                    best = EXACT_TERM_SCORE;
+                    break;
+                }
+                if (documentTerm.startsWith(term)) {
+                    best = PREFIX_TERM_SCORE;
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            idsByTerm.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(CustomerSnapshot customer) {
+        lock.writeLock().lock();
+        try {
+            remove(customer.id());
+            put(customer);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.before() != null) {
+                remove(event.before().id());
+            }
+            if (event.after() != null) {
+                remove(event.after().id());
+                put(event.after());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(CustomerSnapshot customer) {
+        String name = customer.name() == null ? "" : customer.name();
+        String email = customer.email() == null ? "" : customer.email();
+        String foldedName = fold(name);
+        Set<String> terms = documentTerms(foldedName, fold(email));
+
+        entries.put(customer.id(), new Entry(customer.id(), name, email, foldedName, terms));
+        for (String term : terms) {
+            idsByTerm.computeIfAbsent(term, key -> new HashSet<>(2)).add(customer.id());
+        }
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String term : entry.terms()) {
+            Set<Long> ids = idsByTerm.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                idsByTerm.remove(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.cliente.index;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSnapshot;
+
+/**
+ * Filtro de Bloom sobre os e-mails cadastrados, usado para evitar a consulta
+ * {@code existsByEmail} no caso comum de um e-mail novo.
+ *
+ * Filtros de Bloom não suportam remoção: e-mails de clientes excluídos ou
+ * alterados continuam marcados até a próxima reconstrução e só custam uma
+ * consulta de confirmação a mais.
+ */
+@Component
+public class EmailFilter implements CustomerIndex {
+
+    private final BloomFilter filter;
+
+    public EmailFilter(@Value("${customers.email-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${customers.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    public boolean mightContain(String email) {
+        return email != null && filter.mightContain(normalize(email));
+    }
+
+    @Override
+    public void clear() {
+        filter.clear();
+    }
+
+    @Override
+    public void add(CustomerSnapshot customer) {
+        if (customer.email() != null) {
+            filter.add(normalize(customer.email()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.after() != null) {
+            add(event.after());
+        }
+    }
+
+    // Sem distinção de maiúsculas: o filtro pode dar positivo a mais, nunca a menos
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
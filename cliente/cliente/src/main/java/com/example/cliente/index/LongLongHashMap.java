@@ -0,0 +1,134 @@
+package com.example.cliente.index;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de {@code long} para {@code long} com endereçamento aberto (sondagem linear)
+ * sobre dois arrays primitivos: sem boxing e sem um objeto por entrada.
+ *
+ * As chaves devem ser não negativas ({@code -1} marca posição livre). A remoção
+ * usa backward shift, então não há lápides e a sondagem não degrada com o tempo.
+ * Não é thread-safe.
+ */
+public final class LongLongHashMap {
+
+    private static final long EMPTY = -1L;
+    private static final double LOAD_FACTOR = 0.7;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long get(long key, long missingValue) {
+        int slot = slotOf(checkKey(key));
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public void put(long key, long value) {
+        int slot = slotOf(checkKey(key));
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    public boolean remove(long key) {
+        int gap = slotOf(checkKey(key));
+        while (keys[gap] != key) {
+            if (keys[gap] == EMPTY) {
+                return false;
+            }
+            gap = (gap + 1) & mask;
+        }
+
+        // Backward shift: puxa para o buraco as entradas cuja posição ideal vem antes dele
+        int slot = (gap + 1) & mask;
+        while (keys[slot] != EMPTY) {
+            int ideal = slotOf(keys[slot]);
+            if (((slot - ideal) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slotOf(long key) {
+        // Finalizador do MurmurHash3: espalha chaves sequenciais (IDs, CPFs) pela tabela
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private static long checkKey(long key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("A chave deve ser não negativa: " + key);
+        }
+        return key;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
@@ -0,0 +1,470 @@
+package com.example.cliente.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log append-only em segmentos de tamanho fixo mapeados em memória.
+ *
+ * Cada entrada é gravada como {@code [tamanho:int][sequência:long][timestamp:long][crc:int][conteúdo]},
+ * com o CRC32C cobrindo sequência, timestamp e conteúdo. O arquivo de cada
+ * segmento se chama {@code <primeira sequência>.journal}.
+ *
+ * O {@link #append(byte[])} só retorna depois que a entrada está em disco. Os
+ * fsyncs são agrupados por uma thread própria: a cada ciclo ela espera
+ * {@code syncIntervalNanos} para juntar mais escritas e faz um único
+ * {@code force()} para todas. A espera usa {@link ReentrantLock}/{@link Condition}, não
+ * monitores, para que threads virtuais aguardando o fsync liberem a thread portadora.
+ * A leitura só enxerga entradas já sincronizadas e
+ * confere a sequência e o CRC de cada uma.
+ *
+ * Na abertura, os segmentos são relidos e tudo o que vem depois da última entrada
+ * válida (a cauda de uma escrita interrompida por queda, com ou sem o tamanho
+ * gravado) é zerado, para que uma escrita posterior mais curta não deixe restos
+ * que pareçam uma entrada.
+ */
+public final class Journal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(Journal.class);
+
+    static final int HEADER_SIZE = 4 + 8 + 8 + 4;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncIntervalNanos;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Lock writeLock = new ReentrantLock();
+    private final Lock syncLock = new ReentrantLock();
+    // Sinalizada quando há escrita nova para sincronizar e quando o fsync avança
+    private final Condition syncChanged = syncLock.newCondition();
+    private final Thread syncer;
+
+    private volatile Segment active;
+    private long nextSequence;
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+
+    // Posição da última leitura, para a próxima leitura sequencial não reler o segmento do início
+    private ReadPosition readHint;
+
+    private static final class Segment {
+        final long firstSequence;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        volatile int writePosition;
+
+        Segment(long firstSequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private record ReadPosition(Segment segment, int position, long sequence) {
+    }
+
+    private Journal(Path directory, int segmentSize, long syncIntervalNanos) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncIntervalNanos = syncIntervalNanos;
+        this.syncer = new Thread(this::syncLoop, "journal-sync");
+        this.syncer.setDaemon(true);
+    }
+
+    /**
+     * Abre (ou cria) o journal no diretório informado.
+     *
+     * @param minimumSequence última sequência que se sabe já ter sido usada
+     *        (por exemplo, o checkpoint do projetor). Se o journal em disco
+     *        terminar antes dela, a numeração continua a partir dela, para que
+     *        novas entradas nunca reaproveitem sequências já aplicadas.
+     */
+    public static Journal open(Path directory, int segmentSize, long syncIntervalNanos, long minimumSequence)
+            throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Tamanho de segmento inválido: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        Journal journal = new Journal(directory, segmentSize, syncIntervalNanos);
+        journal.recover(minimumSequence);
+        journal.syncer.start();
+        return journal;
+    }
+
+    private void recover(long minimumSequence) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+
+        long expected = -1;
+        for (int i = 0; i < files.size(); i++) {
+            Path path = files.get(i);
+            String name = path.getFileName().toString();
+            long firstSequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            if (expected >= 0 && firstSequence != expected) {
+                throw new IllegalStateException("Journal com lacuna de sequência antes de " + path);
+            }
+
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            Segment segment = new Segment(firstSequence, path, channel, buffer);
+
+            long sequence = firstSequence;
+            int position = 0;
+            while (isValidEntry(buffer, position, sequence)) {
+                position += HEADER_SIZE + buffer.getInt(position);
+                sequence++;
+            }
+            boolean torn = !isZeroFrom(buffer, position);
+            if (torn && i < files.size() - 1) {
+                throw new IllegalStateException("Entrada corrompida no meio do journal: " + path + " posição " + position);
+            }
+            if (torn) {
+                // Descarta a cauda incompleta de uma escrita interrompida
+                log.warn("Descartando entrada incompleta no fim do journal: {} posição {}", path, position);
+                for (int p = position; p < buffer.capacity(); p++) {
+                    buffer.put(p, (byte) 0);
+                }
+                buffer.force();
+            }
+            segment.writePosition = position;
+            segments.put(firstSequence, segment);
+            expected = sequence;
+        }
+
+        long lastSequence = expected < 0 ? 0 : expected - 1;
+        if (lastSequence < minimumSequence) {
+            // Tudo o que está em disco já foi aplicado: recomeça depois do checkpoint
+            for (Segment segment : segments.values()) {
+                deleteSegment(segment);
+            }
+            segments.clear();
+            lastSequence = minimumSequence;
+        }
+        nextSequence = lastSequence + 1;
+        writtenSequence = lastSequence;
+        durableSequence = lastSequence;
+        active = segments.isEmpty() ? createSegment(nextSequence) : segments.lastEntry().getValue();
+        log.info("Journal aberto em {}: {} segmentos, última sequência {}", directory, segments.size(), lastSequence);
+    }
+
+    private static boolean isValidEntry(MappedByteBuffer buffer, int position, long expectedSequence) {
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return false;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) {
+            return false;
+        }
+        if (buffer.getLong(position + 4) != expectedSequence) {
+            return false;
+        }
+        return buffer.getInt(position + 20) == checksum(buffer, position, length);
+    }
+
+    private static boolean isZeroFrom(MappedByteBuffer buffer, int position) {
+        for (int p = position; p < buffer.capacity(); p++) {
+            if (buffer.get(p) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Fim das entradas do segmento: sem espaço para outro tamanho, ou tamanho ainda não gravado
+    private static boolean isEndOfSegment(MappedByteBuffer buffer, int position) {
+        return position + 4 > buffer.capacity() || buffer.getInt(position) == 0;
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + 4, 16));
+        crc.update(buffer.slice(position + HEADER_SIZE, length));
+        return (int) crc.getValue();
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        Segment segment = new Segment(firstSequence, path, channel, buffer);
+        segments.put(firstSequence, segment);
+        return segment;
+    }
+
+    /**
+     * Acrescenta uma entrada e aguarda o fsync do lote em que ela entrou.
+     *
+     * @return a sequência atribuída à entrada
+     */
+    public long append(byte[] payload) {
+        int size = HEADER_SIZE + payload.length;
+        if (payload.length == 0 || size > segmentSize) {
+            throw new IllegalArgumentException("Entrada com tamanho inválido para o journal: " + payload.length);
+        }
+
+        long sequence;
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal fechado");
+            }
+            Segment segment = active;
+            if (segment.writePosition + size > segment.buffer.capacity()) {
+                segment = roll();
+            }
+            sequence = nextSequence++;
+            int position = segment.writePosition;
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.putLong(position + 4, sequence);
+            buffer.putLong(position + 12, System.currentTimeMillis());
+            buffer.put(position + HEADER_SIZE, payload);
+            buffer.putInt(position + 20, checksum(buffer, position, payload.length));
+            // O tamanho é gravado por último: até aqui, a entrada não existe para a leitura
+            buffer.putInt(position, payload.length);
+            segment.writePosition = position + size;
+            writtenSequence = sequence;
+        } finally {
+            writeLock.unlock();
+        }
+
+        syncLock.lock();
+        try {
+            syncChanged.signalAll();
+            // O close() faz o fsync final e libera quem ainda estiver esperando
+            while (durableSequence < sequence) {
+                try {
+                    syncChanged.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrompido aguardando o fsync do journal", e);
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+        return sequence;
+    }
+
+    // Chamado com writeLock: sincroniza o segmento cheio por completo antes de abrir o próximo
+    private Segment roll() {
+        try {
+            active.buffer.force();
+            active = createSegment(nextSequence);
+            return active;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void syncLoop() {
+        while (!closed) {
+            syncLock.lock();
+            try {
+                while (!closed && writtenSequence == durableSequence) {
+                    try {
+                        syncChanged.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            } finally {
+                syncLock.unlock();
+            }
+            if (closed) {
+                return;
+            }
+            // Janela para juntar mais escritas no mesmo fsync
+            if (syncIntervalNanos > 0) {
+                LockSupport.parkNanos(syncIntervalNanos);
+            }
+            long target = writtenSequence;
+            try {
+                active.buffer.force();
+            } catch (RuntimeException e) {
+                log.error("Falha no fsync do journal, tentando novamente", e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                continue;
+            }
+            syncLock.lock();
+            try {
+                durableSequence = target;
+                syncChanged.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lê até {@code maxEntries} entradas já sincronizadas, a partir de {@code fromSequence}.
+     * Entradas de segmentos já removidos são puladas.
+     */
+    public synchronized List<JournalEntry> read(long fromSequence, int maxEntries) {
+        List<JournalEntry> entries = new ArrayList<>();
+        long durable = durableSequence;
+        if (fromSequence > durable || segments.isEmpty()) {
+            return entries;
+        }
+
+        Segment segment;
+        int position;
+        long sequence;
+        ReadPosition hint = readHint;
+        if (hint != null && hint.sequence() == fromSequence && segments.containsKey(hint.segment().firstSequence)) {
+            segment = hint.segment();
+            position = hint.position();
+            sequence = hint.sequence();
+        } else {
+            Map.Entry<Long, Segment> floor = segments.floorEntry(fromSequence);
+            segment = floor != null ? floor.getValue() : segments.firstEntry().getValue();
+            position = 0;
+            sequence = segment.firstSequence;
+        }
+
+        while (entries.size() < maxEntries && sequence <= durable) {
+            MappedByteBuffer buffer = segment.buffer;
+            if (!isValidEntry(buffer, position, sequence)) {
+                if (!isEndOfSegment(buffer, position)) {
+                    throw new IllegalStateException("Entrada corrompida no journal: " + segment.path
+                            + " posição " + position + " (sequência esperada " + sequence + ")");
+                }
+                Map.Entry<Long, Segment> next = segments.higherEntry(segment.firstSequence);
+                if (next == null) {
+                    break;
+                }
+                // A numeração de cada segmento recomeça da sequência do nome do arquivo
+                segment = next.getValue();
+                position = 0;
+                sequence = segment.firstSequence;
+                continue;
+            }
+            int length = buffer.getInt(position);
+            if (sequence >= fromSequence) {
+                byte[] payload = new byte[length];
+                buffer.get(position + HEADER_SIZE, payload);
+                entries.add(new JournalEntry(sequence, buffer.getLong(position + 12), payload));
+            }
+            position += HEADER_SIZE + length;
+            sequence++;
+        }
+        readHint = new ReadPosition(segment, position, sequence);
+        return entries;
+    }
+
+    /**
+     * Aguarda até existir alguma entrada sincronizada depois de {@code sequence}, ou até o tempo acabar.
+     */
+    public void awaitDurableAfter(long sequence, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        syncLock.lock();
+        try {
+            long remaining;
+            while (!closed && durableSequence <= sequence && (remaining = deadline - System.nanoTime()) > 0) {
+                syncChanged.awaitNanos(remaining);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Remove os segmentos cujas entradas são todas anteriores a {@code sequence}.
+     * O segmento ativo nunca é removido.
+     */
+    public synchronized void deleteSegmentsBefore(long sequence) {
+        for (Segment segment : segments.values()) {
+            Map.Entry<Long, Segment> next = segments.higherEntry(segment.firstSequence);
+            if (next == null || next.getKey() > sequence) {
+                break;
+            }
+            segments.remove(segment.firstSequence);
+            deleteSegment(segment);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o segmento {} do journal", segment.path, e);
+        }
+    }
+
+    public long lastSequence() {
+        return writtenSequence;
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        syncLock.lock();
+        try {
+            syncChanged.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+        try {
+            syncer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        syncLock.lock();
+        try {
+            durableSequence = writtenSequence;
+            syncChanged.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+    }
+}
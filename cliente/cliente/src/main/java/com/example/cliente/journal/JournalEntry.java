@@ -0,0 +1,8 @@
+package com.example.cliente.journal;
+
+/**
+ * Entrada lida do {@link Journal}: número de sequência, instante do append
+ * (epoch em milissegundos) e o conteúdo gravado.
+ */
+public record JournalEntry(long sequence, long timestamp, byte[] payload) {
+}
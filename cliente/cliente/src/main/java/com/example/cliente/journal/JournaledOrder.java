@@ -0,0 +1,53 @@
+package com.example.cliente.journal;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.cliente.model.Customer;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderItem;
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Formato do pedido gravado no journal: só os dados de entrada, com o cliente
+ * referenciado pelo ID, independente do mapeamento JPA da entidade.
+ */
+public record JournaledOrder(
+        Long customerId,
+        LocalDateTime orderDate,
+        BigDecimal totalValue,
+        OrderStatus status,
+        List<Item> items) {
+
+    public record Item(int quantity, long unitPriceCents) {
+    }
+
+    public static JournaledOrder from(Order order) {
+        List<Item> items = new ArrayList<>();
+        if (order.getOrderItems() != null) {
+            for (OrderItem item : order.getOrderItems()) {
+                items.add(new Item(item.getQuantity(), item.getUnitPriceCents()));
+            }
+        }
+        return new JournaledOrder(
+                order.getCustomer() == null ? null : order.getCustomer().getId(),
+                order.getOrderDate(),
+                order.getTotalValue(),
+                order.getStatus(),
+                items);
+    }
+
+    public Order toOrder(Customer customer) {
+        Order order = new Order(customer, orderDate, totalValue, status);
+        List<OrderItem> orderItems = new ArrayList<>(items == null ? 0 : items.size());
+        if (items != null) {
+            for (Item item : items) {
+                orderItems.add(new OrderItem(order, item.quantity(), item.unitPriceCents()));
+            }
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.cliente.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.cliente.model.JournalCheckpoint;
+import com.example.cliente.model.Order;
+import com.example.cliente.pricing.OrderTotals;
+import com.example.cliente.repository.JournalCheckpointRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Modo de entrada de pedidos pelo journal ({@code orders.journal.enabled=true}):
+ * o pedido é gravado no {@link Journal} local e confirmado assim que está em
+ * disco; o {@link OrderJournalProjector} grava no banco depois.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.journal.enabled", havingValue = "true")
+public class OrderJournal {
+
+    static final String CHECKPOINT = "orders";
+
+    private final Journal journal;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    public OrderJournal(ObjectMapper objectMapper, JournalCheckpointRepository checkpointRepository,
+            @Value("${orders.journal.directory:data/journal}") String directory,
+            @Value("${orders.journal.segment-size:67108864}") int segmentSize,
+            @Value("${orders.journal.sync-interval-ms:1}") long syncIntervalMillis) throws IOException {
+        this.writer = objectMapper.writerFor(JournaledOrder.class);
+        this.reader = objectMapper.readerFor(JournaledOrder.class);
+        long applied = checkpointRepository.findById(CHECKPOINT).map(JournalCheckpoint::getSequence).orElse(0L);
+        this.journal = Journal.open(Path.of(directory), segmentSize,
+                TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis), applied);
+    }
+
+    /**
+     * Grava o pedido no journal e retorna a sua sequência depois do fsync. O total é
+     * calculado dos itens antes da gravação, para que um item inválido seja recusado já
+     * na requisição e não descartado depois pelo projetor.
+     */
+    public long append(Order order) {
+        OrderTotals.applyTo(order);
+        try {
+            return journal.append(writer.writeValueAsBytes(JournaledOrder.from(order)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    JournaledOrder decode(JournalEntry entry) {
+        try {
+            return reader.readValue(entry.payload());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Entrada " + entry.sequence() + " do journal ilegível", e);
+        }
+    }
+
+    Journal journal() {
+        return journal;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+}
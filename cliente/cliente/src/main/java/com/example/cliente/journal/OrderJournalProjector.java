@@ -0,0 +1,237 @@
+package com.example.cliente.journal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cliente.model.JournalCheckpoint;
+import com.example.cliente.model.Order;
+import com.example.cliente.repository.CustomerRepository;
+import com.example.cliente.repository.JournalCheckpointRepository;
+import com.example.cliente.repository.OrderRepository;
+import com.example.cliente.stats.OrderStatsDelta;
+import com.example.cliente.stats.OrderStatsRollup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Aplica as entradas do {@link OrderJournal} no banco, em lotes, em uma thread própria.
+ *
+ * Cada lote é gravado na mesma transação que avança o {@link JournalCheckpoint}
+ * (e que soma os pedidos aos agregados de estatística), então depois de um restart a leitura recomeça exatamente após a última
+ * entrada aplicada, sem duplicar pedidos. Uma entrada que o banco rejeita
+ * (cliente inexistente, por exemplo) é descartada e registrada no log; falhas
+ * transitórias (banco fora do ar) fazem o lote ser repetido.
+ *
+ * Métricas: {@code orders.journal.lag} (entradas ainda não aplicadas),
+ * {@code orders.journal.lag.time} (idade da entrada pendente mais antiga) e
+ * {@code orders.journal.discarded}.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.journal.enabled", havingValue = "true")
+public class OrderJournalProjector implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournalProjector.class);
+
+    private final OrderJournal orderJournal;
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderStatsRollup statsRollup;
+
+    @Value("${orders.journal.projector.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${orders.journal.projector.retry-delay-ms:1000}")
+    private long retryDelayMillis = 1000;
+
+    private volatile long appliedSequence;
+    // Timestamp da entrada pendente mais antiga lida, ou 0 se não há pendências
+    private volatile long oldestPendingTimestamp;
+    private volatile boolean running;
+    private Thread worker;
+    private Counter discarded;
+
+    public OrderJournalProjector(OrderJournal orderJournal, OrderRepository orderRepository,
+            CustomerRepository customerRepository, JournalCheckpointRepository checkpointRepository,
+            TransactionTemplate transactionTemplate, OrderStatsRollup statsRollup) {
+        this.orderJournal = orderJournal;
+        this.orderRepository = orderRepository;
+        this.customerRepository = customerRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.statsRollup = statsRollup;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orders.journal.lag", this, OrderJournalProjector::lag)
+                .description("Pedidos confirmados pelo journal e ainda não gravados no banco")
+                .register(registry);
+        TimeGauge.builder("orders.journal.lag.time", this, TimeUnit.MILLISECONDS, OrderJournalProjector::lagMillis)
+                .description("Idade do pedido pendente mais antigo do journal")
+                .register(registry);
+        discarded = Counter.builder("orders.journal.discarded")
+                .description("Entradas do journal rejeitadas pelo banco e descartadas")
+                .register(registry);
+    }
+
+    public long lag() {
+        return Math.max(0, orderJournal.journal().durableSequence() - appliedSequence);
+    }
+
+    public long lagMillis() {
+        long oldest = oldestPendingTimestamp;
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    @Override
+    public void start() {
+        appliedSequence = checkpointRepository.findById(OrderJournal.CHECKPOINT)
+                .map(JournalCheckpoint::getSequence)
+                .orElse(0L);
+        running = true;
+        worker = new Thread(this::run, "order-journal-projector");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        Journal journal = orderJournal.journal();
+        while (running) {
+            try {
+                if (applyPending() == 0) {
+                    journal.awaitDurableAfter(appliedSequence, 100, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Falha ao aplicar o journal de pedidos a partir da sequência {}, tentando novamente",
+                        appliedSequence + 1, e);
+                try {
+                    Thread.sleep(retryDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Aplica o próximo lote de entradas sincronizadas.
+     *
+     * @return quantidade de entradas processadas (aplicadas ou descartadas)
+     */
+    int applyPending() {
+        Journal journal = orderJournal.journal();
+        List<JournalEntry> entries = journal.read(appliedSequence + 1, batchSize);
+        if (entries.isEmpty()) {
+            oldestPendingTimestamp = 0;
+            return 0;
+        }
+        oldestPendingTimestamp = entries.get(0).timestamp();
+
+        try {
+            applyInTransaction(entries);
+        } catch (DataIntegrityViolationException | IllegalArgumentException e) {
+            // Alguma entrada é rejeitada pelo banco: reaplica uma a uma para isolar as inválidas
+            for (JournalEntry entry : entries) {
+                try {
+                    applyInTransaction(List.of(entry));
+                } catch (DataIntegrityViolationException | IllegalArgumentException rejected) {
+                    discard(entry, rejected);
+                }
+            }
+        }
+
+        journal.deleteSegmentsBefore(appliedSequence + 1);
+        return entries.size();
+    }
+
+    private void applyInTransaction(List<JournalEntry> entries) {
+        long applied = transactionTemplate.execute(status -> {
+            JournalCheckpoint checkpoint = checkpointRepository.findById(OrderJournal.CHECKPOINT)
+                    .orElseGet(() -> new JournalCheckpoint(OrderJournal.CHECKPOINT, 0));
+            List<Order> orders = new ArrayList<>(entries.size());
+            OrderStatsDelta stats = new OrderStatsDelta();
+            long last = checkpoint.getSequence();
+            for (JournalEntry entry : entries) {
+                // Entradas já cobertas pelo checkpoint foram aplicadas antes de um restart
+                if (entry.sequence() <= last) {
+                    continue;
+                }
+                JournaledOrder journaled = orderJournal.decode(entry);
+                if (journaled.customerId() == null) {
+                    throw new IllegalArgumentException("Entrada " + entry.sequence() + " do journal sem cliente");
+                }
+                Order order = journaled.toOrder(customerRepository.getReferenceById(journaled.customerId()));
+                orders.add(order);
+                stats.add(order);
+                last = entry.sequence();
+            }
+            orderRepository.saveAll(orders);
+            statsRollup.apply(stats);
+            checkpoint.setSequence(last);
+            checkpointRepository.save(checkpoint);
+            orderRepository.flush();
+            return last;
+        });
+        appliedSequence = applied;
+    }
+
+    // Avança o checkpoint sobre a entrada rejeitada, para que ela não bloqueie as seguintes
+    private void discard(JournalEntry entry, RuntimeException cause) {
+        log.error("Pedido da sequência {} do journal descartado: {}", entry.sequence(), cause.getMessage());
+        transactionTemplate.executeWithoutResult(status -> {
+            JournalCheckpoint checkpoint = checkpointRepository.findById(OrderJournal.CHECKPOINT)
+                    .orElseGet(() -> new JournalCheckpoint(OrderJournal.CHECKPOINT, 0));
+            if (checkpoint.getSequence() < entry.sequence()) {
+                checkpoint.setSequence(entry.sequence());
+                checkpointRepository.save(checkpoint);
+            }
+        });
+        appliedSequence = Math.max(appliedSequence, entry.sequence());
+        if (discarded != null) {
+            discarded.increment();
+        }
+    }
+}
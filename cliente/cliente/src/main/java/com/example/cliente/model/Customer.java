@@ -1,6 +1,9 @@
 package com.example.cliente.model;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
@@ -9,16 +12,30 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_customer_ltv", columnList = "lifetimeValue"),
+        @Index(name = "idx_customer_updated_at", columnList = "updatedAt") })
 public class Customer {
 
+    // Sequência com alocação em bloco: permite ao Hibernate agrupar os INSERTs em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "O nome é obrigatório!")
@@ -26,6 +43,7 @@ public class Customer {
 
     @NotBlank(message = "O e-mail é obrigatório!")
     @Email(message = "O e-mail deve ser um e-mail válido!")
+    @Column(unique = true)
     private String email;
 
     @NotBlank(message = "O telefone é obrigatório!")
@@ -43,6 +61,31 @@ public class Customer {
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL)
     private List<Order> orders;
 
+    // Versão para controle otimista e ETag; atualizada pelo Hibernate a cada alteração
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
+    // Resumo dos pedidos, mantido por UPDATEs de soma a cada gravação de pedido. Fica fora
+    // dos UPDATEs da entidade, para que um PUT do cliente não sobrescreva somas concorrentes
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long orderCount;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private BigDecimal lifetimeValue = BigDecimal.ZERO;
+
+    @Column(updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime lastOrderDate;
+
     public Long getId() {
         return id;
     }
@@ -91,6 +134,46 @@ public class Customer {
         this.registrationDate = registrationDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getLifetimeValue() {
+        return lifetimeValue;
+    }
+
+    public void setLifetimeValue(BigDecimal lifetimeValue) {
+        this.lifetimeValue = lifetimeValue;
+    }
+
+    public LocalDateTime getLastOrderDate() {
+        return lastOrderDate;
+    }
+
+    public void setLastOrderDate(LocalDateTime lastOrderDate) {
+        this.lastOrderDate = lastOrderDate;
+    }
+
     public void addOrder(Order order) {
         orders.add(order);
         order.setCustomer(this);
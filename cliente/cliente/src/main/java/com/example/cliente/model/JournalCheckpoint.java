@@ -0,0 +1,41 @@
+package com.example.cliente.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Última sequência do journal já aplicada ao banco. É atualizada na mesma
+ * transação que grava as entradas, o que torna a reaplicação idempotente.
+ */
+@Entity
+public class JournalCheckpoint {
+
+    @Id
+    private String name;
+
+    private long sequence;
+
+    public JournalCheckpoint() {
+    }
+
+    public JournalCheckpoint(String name, long sequence) {
+        this.name = name;
+        this.sequence = sequence;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+}
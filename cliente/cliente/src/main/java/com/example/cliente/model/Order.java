@@ -1,54 +1,97 @@
 package com.example.cliente.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import javax.validation.constraints.NotNull;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "order_table")
+// Índices das consultas por status e por cliente dentro de um período (GET /orders?status=&from=&to=)
+// e da atualização incremental do motor de análise (pedidos gravados desde a última leitura)
+@Table(name = "order_table", indexes = {
+        @Index(name = "idx_order_status_date", columnList = "status, orderDate"),
+        @Index(name = "idx_order_customer_date", columnList = "customer_id, orderDate"),
+        @Index(name = "idx_order_updated_at", columnList = "updatedAt") })
 public class Order {
+    // Sequência com alocação em bloco: permite ao Hibernate agrupar os INSERTs em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
     @NotNull
     private LocalDateTime orderDate;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems;
 
     private BigDecimal totalValue;
 
-    private String status;
+    @Column(length = 1)
+    private OrderStatus status;
+
+    // Versão para controle otimista e ETag; atualizada pelo Hibernate a cada alteração
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
 
     // Construtor padrão
     public Order() {
     }
 
     // Construtor com parâmetros
-    public Order(Customer customer, LocalDateTime orderDate, BigDecimal totalValue, String status) {
+    public Order(Customer customer, LocalDateTime orderDate, BigDecimal totalValue, OrderStatus status) {
         this.customer = customer;
         this.orderDate = orderDate;
         this.totalValue = totalValue;
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     // Getters e setters
     public Long getId() {
         return id;
@@ -90,11 +133,11 @@ public class Order {
         this.totalValue = totalValue;
     }
 
-    public String getStatus() {
+    public OrderStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(OrderStatus status) {
         this.status = status;
     }
 }
@@ -1,32 +1,46 @@
 package com.example.cliente.model;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 
 @Entity
 public class OrderItem {
+    // Sequência com alocação em bloco: permite ao Hibernate agrupar os INSERTs em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
     private int quantity;
-    private double unitPrice;
+
+    // Preço em centavos: o total do pedido é somado em long, exato e sem BigDecimal por item
+    // (ver OrderTotals). No JSON continua em reais, como unitPrice.
+    @JsonIgnore
+    private long unitPriceCents;
 
     public OrderItem() {
     }
 
-    public OrderItem(Order order, int quantity, double unitPrice) {
+    public OrderItem(Order order, int quantity, long unitPriceCents) {
         this.order = order;
         this.quantity = quantity;
-        this.unitPrice = unitPrice;
+        this.unitPriceCents = unitPriceCents;
     }
 
     public Long getId() {
@@ -53,11 +67,30 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
-    public double getUnitPrice() {
-        return unitPrice;
+    public long getUnitPriceCents() {
+        return unitPriceCents;
+    }
+
+    public void setUnitPriceCents(long unitPriceCents) {
+        this.unitPriceCents = unitPriceCents;
+    }
+
+    @JsonProperty("unitPrice")
+    public BigDecimal getUnitPrice() {
+        return BigDecimal.valueOf(unitPriceCents, 2);
     }
 
-    public void setUnitPrice(double unitPrice) {
-        this.unitPrice = unitPrice;
+    /**
+     * Recebe o preço em reais; mais de duas casas decimais seria arredondar dinheiro
+     * em silêncio, então é rejeitado.
+     */
+    @JsonProperty("unitPrice")
+    public void setUnitPrice(BigDecimal unitPrice) {
+        try {
+            this.unitPriceCents = unitPrice.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Preço unitário inválido: " + unitPrice.toPlainString()
+                    + ". Use no máximo duas casas decimais");
+        }
     }
 }
@@ -0,0 +1,88 @@
+package com.example.cliente.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Agregado de pedidos por hora e status: quantidade e soma de {@code totalValue}.
+ * Mantido de forma incremental a cada gravação de pedido pelo
+ * {@code OrderStatsRollup}; os relatórios por dia e mês somam as horas.
+ *
+ * O status é a chave junto com a hora, por isso fica como o código de um caractere
+ * do {@link OrderStatus} (conversores não se aplicam a atributos de ID).
+ */
+@Entity
+@Table(name = "order_stats_hourly")
+@IdClass(OrderStatsHourly.Key.class)
+public class OrderStatsHourly {
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "status", length = 1)
+    private char statusCode;
+
+    private long orderCount;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal totalValue;
+
+    public OrderStatsHourly() {
+    }
+
+    public OrderStatsHourly(LocalDateTime bucketStart, OrderStatus status, long orderCount, BigDecimal totalValue) {
+        this.bucketStart = bucketStart;
+        this.statusCode = status.code();
+        this.orderCount = orderCount;
+        this.totalValue = totalValue;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public OrderStatus getStatus() {
+        return OrderStatus.fromCode(statusCode);
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public static class Key implements Serializable {
+
+        private LocalDateTime bucketStart;
+        private char statusCode;
+
+        public Key() {
+        }
+
+        public Key(LocalDateTime bucketStart, char statusCode) {
+            this.bucketStart = bucketStart;
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && statusCode == key.statusCode && Objects.equals(bucketStart, key.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketStart, statusCode);
+        }
+    }
+}
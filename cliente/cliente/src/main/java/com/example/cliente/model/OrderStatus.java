@@ -0,0 +1,33 @@
+package com.example.cliente.model;
+
+/**
+ * Situação de um pedido. No banco cada valor ocupa um caractere ({@link #code()}),
+ * gravado pelo {@link OrderStatusConverter}; no JSON vale o nome da constante.
+ */
+public enum OrderStatus {
+
+    NEW('N'),
+    PAID('P'),
+    SHIPPED('S'),
+    DELIVERED('D'),
+    CANCELLED('C');
+
+    private final char code;
+
+    OrderStatus(char code) {
+        this.code = code;
+    }
+
+    public char code() {
+        return code;
+    }
+
+    public static OrderStatus fromCode(char code) {
+        for (OrderStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Código de status de pedido desconhecido: " + code);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.cliente.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Grava o {@link OrderStatus} como um único caractere: a coluna e os índices que a
+ * usam ficam menores que com o nome, e a ordem das constantes pode mudar sem
+ * alterar os dados (o que não vale para {@code EnumType.ORDINAL}).
+ */
+@Converter(autoApply = true)
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Character> {
+
+    @Override
+    public Character convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.code();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Character code) {
+        return code == null ? null : OrderStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cliente.pricing;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderItem;
+
+/**
+ * Total do pedido calculado no servidor a partir dos itens.
+ *
+ * Os preços estão em centavos ({@code long}): a soma é exata e não aloca nada, ao
+ * contrário de um {@link BigDecimal} por multiplicação e por soma parcial. Só o
+ * resultado final vira {@code BigDecimal}, na escala 2 de {@code Order.totalValue}.
+ * {@link Math#multiplyExact} e {@link Math#addExact} são intrínsecos da JVM e detectam
+ * o estouro, que vira 400 em vez de um total errado.
+ */
+public final class OrderTotals {
+
+    private OrderTotals() {
+    }
+
+    /**
+     * Com itens, o total do pedido passa a ser a soma deles e o valor enviado é ignorado;
+     * sem itens, o total informado é mantido.
+     */
+    public static void applyTo(Order order) {
+        List<OrderItem> items = order.getOrderItems();
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        for (int i = 0, n = items.size(); i < n; i++) {
+            OrderItem item = items.get(i);
+            if (item.getQuantity() <= 0) {
+                throw new BadRequestException("Quantidade inválida no item " + (i + 1) + ": " + item.getQuantity()
+                        + ". A quantidade deve ser maior que zero");
+            }
+            if (item.getUnitPriceCents() < 0) {
+                throw new BadRequestException("Preço unitário negativo no item " + (i + 1));
+            }
+        }
+        try {
+            order.setTotalValue(toBigDecimal(totalCents(items)));
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("O total do pedido excede o valor máximo suportado");
+        }
+    }
+
+    /**
+     * Soma de quantidade × preço em centavos, sem alocação: laço indexado (sem
+     * {@code Iterator}) sobre as listas de acesso aleatório que chegam do JSON e do Hibernate.
+     *
+     * @throws ArithmeticException se o total não couber em um {@code long}
+     */
+    public static long totalCents(List<OrderItem> items) {
+        long total = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            OrderItem item = items.get(i);
+            total = Math.addExact(total, Math.multiplyExact((long) item.getQuantity(), item.getUnitPriceCents()));
+        }
+        return total;
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -1,14 +1,107 @@
 package com.example.cliente.repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.cliente.analytics.CustomerRegistration;
+import com.example.cliente.dto.CustomerResponse;
+import com.example.cliente.event.CustomerSnapshot;
+import com.example.cliente.event.CustomerSummary;
 import com.example.cliente.model.Customer;
 
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     boolean existsByEmail(String email);
 
     boolean existsByDocumentNumber(String documentNumber);
+
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    boolean existsByDocumentNumberAndIdNot(String documentNumber, Long id);
+
+    @Query("SELECT c.email FROM Customer c WHERE c.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT c.documentNumber FROM Customer c WHERE c.documentNumber IN :documentNumbers")
+    List<String> findExistingDocumentNumbers(@Param("documentNumbers") Collection<String> documentNumbers);
+
+    // Paginação por keyset: busca a partir do último ID lido, sem OFFSET
+    @Query("SELECT new com.example.cliente.dto.CustomerResponse(c.id, c.name, c.email, c.phone, c.documentNumber, c.registrationDate, "
+            + "c.orderCount, c.lifetimeValue, c.lastOrderDate) "
+            + "FROM Customer c WHERE c.id > :after ORDER BY c.id")
+    List<CustomerResponse> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    // Leitura em cursor para exportação; deve ser consumido dentro de uma transação
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.cliente.dto.CustomerResponse(c.id, c.name, c.email, c.phone, c.documentNumber, c.registrationDate, "
+            + "c.orderCount, c.lifetimeValue, c.lastOrderDate) "
+            + "FROM Customer c ORDER BY c.id")
+    Stream<CustomerResponse> streamAllOrderedById();
+
+    // Carga dos índices em memória; deve ser consumido dentro de uma transação
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.cliente.event.CustomerSnapshot(c.id, c.name, c.email, c.documentNumber) FROM Customer c")
+    Stream<CustomerSnapshot> streamSnapshots();
+
+    // Datas de cadastro para o motor de análise (orders.analytics); devem ser consumidos dentro de uma transação
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.cliente.analytics.CustomerRegistration(c.id, c.registrationDate) FROM Customer c")
+    Stream<CustomerRegistration> streamRegistrations();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.cliente.analytics.CustomerRegistration(c.id, c.registrationDate) "
+            + "FROM Customer c WHERE c.updatedAt >= :since")
+    Stream<CustomerRegistration> streamRegistrationsUpdatedSince(@Param("since") Instant since);
+
+    @Query("SELECT new com.example.cliente.event.CustomerSnapshot(c.id, c.name, c.email, c.documentNumber) FROM Customer c WHERE c.id = :id")
+    Optional<CustomerSnapshot> findSnapshotById(@Param("id") Long id);
+
+    // Exclusão por conjunto, sem carregar o cliente nem passar pelo cascade dos pedidos
+    @Modifying
+    @Query("DELETE FROM Customer c WHERE c.id = :id")
+    int deleteInBulkById(@Param("id") Long id);
+
+    // Resumo dos pedidos: soma no próprio banco, para que gravações concorrentes do mesmo cliente não se percam.
+    // A versão avança para que o ETag do cliente mude junto com o resumo
+    @Modifying
+    @Query("UPDATE Customer c SET c.orderCount = c.orderCount + :count, c.lifetimeValue = c.lifetimeValue + :value, "
+            + "c.lastOrderDate = CASE WHEN c.lastOrderDate IS NULL OR c.lastOrderDate < :latest THEN :latest ELSE c.lastOrderDate END, "
+            + "c.version = c.version + 1, c.updatedAt = :now WHERE c.id = :id")
+    int addToOrderSummary(@Param("id") Long id, @Param("count") long count, @Param("value") BigDecimal value,
+            @Param("latest") LocalDateTime latestOrderDate, @Param("now") Instant now);
+
+    // Quando o último pedido pode ter saído, a data é relida pelo índice (customer_id, order_date)
+    @Modifying
+    @Query("UPDATE Customer c SET c.orderCount = c.orderCount + :count, c.lifetimeValue = c.lifetimeValue + :value, "
+            + "c.lastOrderDate = (SELECT max(o.orderDate) FROM Order o WHERE o.customer.id = :id), "
+            + "c.version = c.version + 1, c.updatedAt = :now WHERE c.id = :id")
+    int adjustOrderSummary(@Param("id") Long id, @Param("count") long count, @Param("value") BigDecimal value,
+            @Param("now") Instant now);
+
+    @Query("SELECT new com.example.cliente.event.CustomerSummary(c.id, c.orderCount, c.lifetimeValue, c.lastOrderDate, c.version) "
+            + "FROM Customer c WHERE c.id IN :ids")
+    List<CustomerSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Carga do ranking em memória, pelo índice de lifetime_value
+    @Query("SELECT new com.example.cliente.event.CustomerSummary(c.id, c.orderCount, c.lifetimeValue, c.lastOrderDate, c.version) "
+            + "FROM Customer c WHERE c.orderCount > 0 ORDER BY c.lifetimeValue DESC, c.id")
+    List<CustomerSummary> findTopByLifetimeValue(Pageable pageable);
 }
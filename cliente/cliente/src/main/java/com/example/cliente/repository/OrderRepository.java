@@ -1,10 +1,105 @@
 package com.example.cliente.repository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.cliente.analytics.OrderRow;
+import com.example.cliente.dto.OrderResponse;
 import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.stats.OrderStatsRow;
+import com.example.cliente.stats.OrderStatsSnapshot;
+
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    // Pedidos agrupados por hora e status, para os agregados de order_stats_hourly
+    String SUM_BY_HOUR = "SELECT new com.example.cliente.stats.OrderStatsRow(year(o.orderDate), month(o.orderDate), "
+            + "day(o.orderDate), hour(o.orderDate), o.status, count(o), sum(o.totalValue)) FROM Order o ";
+    String GROUP_BY_HOUR = " GROUP BY year(o.orderDate), month(o.orderDate), day(o.orderDate), hour(o.orderDate), o.status";
+
+    // Paginação por keyset: busca a partir do último ID lido, sem OFFSET
+    @Query("SELECT new com.example.cliente.dto.OrderResponse(o.id, o.customer.id, o.orderDate, o.totalValue, o.status) "
+            + "FROM Order o WHERE o.id > :after ORDER BY o.id")
+    List<OrderResponse> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    // Leitura em cursor para exportação; deve ser consumido dentro de uma transação
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.cliente.dto.OrderResponse(o.id, o.customer.id, o.orderDate, o.totalValue, o.status) "
+            + "FROM Order o ORDER BY o.id")
+    Stream<OrderResponse> streamAllOrderedById();
+
+    // Carga do motor de análise (orders.analytics); devem ser consumidos dentro de uma transação
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.cliente.analytics.OrderRow(o.id, o.customer.id, o.orderDate, o.totalValue, o.status) "
+            + "FROM Order o")
+    Stream<OrderRow> streamAnalyticsRows();
+
+    // Usa o índice de updated_at: só os pedidos gravados desde a última atualização
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.cliente.analytics.OrderRow(o.id, o.customer.id, o.orderDate, o.totalValue, o.status) "
+            + "FROM Order o WHERE o.updatedAt >= :since")
+    Stream<OrderRow> streamAnalyticsRowsUpdatedSince(@Param("since") Instant since);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT o.id FROM Order o")
+    Stream<Long> streamAllIds();
+
+    // Histórico do cliente, fase 1: página de IDs por keyset, sem tocar nos itens
+    @Query("SELECT o.id FROM Order o WHERE o.customer.id = :customerId AND o.id > :after ORDER BY o.id")
+    List<Long> findIdsByCustomerIdAfter(@Param("customerId") Long customerId, @Param("after") Long after, Pageable pageable);
+
+    // Histórico do cliente, fase 2: pedidos e itens da página em uma única consulta.
+    // O limite já foi aplicado aos IDs, então o Hibernate não precisa paginar a coleção em memória
+    @EntityGraph(attributePaths = "orderItems")
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Detalhe do pedido: pedido e itens em uma única consulta, sem carregar o cliente
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    // Exclusão do cliente, fase 1: itens de todos os pedidos dele em um único DELETE
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN (SELECT o.id FROM Order o WHERE o.customer.id = :customerId)")
+    int deleteItemsInBulkByCustomerId(@Param("customerId") Long customerId);
+
+    // Exclusão do cliente, fase 2: os pedidos, já sem itens
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.customer.id = :customerId")
+    int deleteInBulkByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT new com.example.cliente.stats.OrderStatsSnapshot(o.customer.id, o.orderDate, o.status, o.totalValue, o.version) "
+            + "FROM Order o WHERE o.id = :id")
+    Optional<OrderStatsSnapshot> findStatsSnapshotById(@Param("id") Long id);
+
+    // Pedido com itens tem o total calculado a partir deles, não alterável por PATCH
+    @Query("SELECT CASE WHEN count(i) > 0 THEN true ELSE false END FROM OrderItem i WHERE i.order.id = :id")
+    boolean hasItems(@Param("id") Long id);
+
+    // Exclusão do cliente: o que sai dos agregados junto com os pedidos dele
+    @Query(SUM_BY_HOUR + "WHERE o.customer.id = :customerId" + GROUP_BY_HOUR)
+    List<OrderStatsRow> sumByHourForCustomer(@Param("customerId") Long customerId);
+
+    // Backfill dos agregados: um status e um período por vez, pelo índice (status, order_date)
+    @Query(SUM_BY_HOUR + "WHERE o.status = :status AND o.orderDate >= :from AND o.orderDate < :to" + GROUP_BY_HOUR)
+    List<OrderStatsRow> sumByHourForStatus(@Param("status") OrderStatus status,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
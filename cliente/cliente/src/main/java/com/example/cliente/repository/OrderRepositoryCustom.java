@@ -0,0 +1,46 @@
+package com.example.cliente.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.example.cliente.dto.OrderDateCursor;
+import com.example.cliente.dto.OrderPatch;
+import com.example.cliente.dto.OrderQuery;
+import com.example.cliente.dto.OrderResponse;
+import com.example.cliente.dto.OrderStatusTransition;
+import com.example.cliente.stats.OrderStatsRow;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Aplica os campos presentes no patch com um único UPDATE condicionado à versão
+     * esperada, avançando a versão e o {@code updatedAt}. Retorna as linhas alteradas:
+     * 0 se o pedido não existe ou está em outra versão.
+     *
+     * O UPDATE não passa pelo contexto de persistência; instâncias já carregadas
+     * na transação ficam desatualizadas.
+     */
+    int patch(Long id, long expectedVersion, OrderPatch patch);
+
+    /**
+     * Move do status {@code from} para o {@code to} da transição, em um único UPDATE,
+     * os pedidos de {@code ids} ou, com {@code ids} nulo, os que atendem ao filtro da
+     * transição. Versão e {@code updatedAt} avançam como em {@link #patch}.
+     * Retorna as linhas alteradas.
+     */
+    int transitionStatus(OrderStatusTransition transition, Collection<Long> ids);
+
+    /**
+     * Os pedidos que {@link #transitionStatus} alteraria com os mesmos argumentos,
+     * agrupados por hora e status (sempre o status de origem).
+     */
+    List<OrderStatsRow> sumTransitionCandidates(OrderStatusTransition transition, Collection<Long> ids);
+
+    /**
+     * Página de pedidos do filtro ordenada por {@code (orderDate, id)}, a partir de
+     * {@code after} (exclusive; nulo para a primeira página). Com status ou cliente no
+     * filtro, a consulta percorre os índices {@code (status, order_date)} ou
+     * {@code (customer_id, order_date)} já na ordem da página. Pedidos sem data não entram.
+     */
+    List<OrderResponse> findPage(OrderQuery query, OrderDateCursor after, int limit);
+}
@@ -0,0 +1,144 @@
+package com.example.cliente.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.example.cliente.dto.OrderDateCursor;
+import com.example.cliente.dto.OrderPatch;
+import com.example.cliente.dto.OrderQuery;
+import com.example.cliente.dto.OrderResponse;
+import com.example.cliente.dto.OrderStatusTransition;
+import com.example.cliente.model.Order;
+import com.example.cliente.stats.OrderStatsRow;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(Long id, long expectedVersion, OrderPatch patch) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Order> update = builder.createCriteriaUpdate(Order.class);
+        Root<Order> order = update.from(Order.class);
+
+        // SET só das colunas enviadas
+        if (patch.orderDate() != null) {
+            update.set(order.<Object>get("orderDate"), patch.orderDate());
+        }
+        if (patch.totalValue() != null) {
+            update.set(order.<Object>get("totalValue"), patch.totalValue());
+        }
+        if (patch.status() != null) {
+            update.set(order.<Object>get("status"), patch.status());
+        }
+        update.set(order.<Long>get("version"), builder.sum(order.<Long>get("version"), 1L));
+        update.set(order.<Object>get("updatedAt"), Instant.now());
+
+        update.where(
+                builder.equal(order.get("id"), id),
+                builder.equal(order.get("version"), expectedVersion));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int transitionStatus(OrderStatusTransition transition, Collection<Long> ids) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Order> update = builder.createCriteriaUpdate(Order.class);
+        Root<Order> order = update.from(Order.class);
+
+        update.set(order.<Object>get("status"), transition.to());
+        update.set(order.<Long>get("version"), builder.sum(order.<Long>get("version"), 1L));
+        update.set(order.<Object>get("updatedAt"), Instant.now());
+
+        update.where(transitionPredicates(builder, order, transition, ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<OrderStatsRow> sumTransitionCandidates(OrderStatusTransition transition, Collection<Long> ids) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderStatsRow> select = builder.createQuery(OrderStatsRow.class);
+        Root<Order> order = select.from(Order.class);
+        List<Expression<?>> hour = List.of(
+                builder.function("year", Integer.class, order.get("orderDate")),
+                builder.function("month", Integer.class, order.get("orderDate")),
+                builder.function("day", Integer.class, order.get("orderDate")),
+                builder.function("hour", Integer.class, order.get("orderDate")));
+        select.select(builder.construct(OrderStatsRow.class, hour.get(0), hour.get(1), hour.get(2), hour.get(3),
+                order.get("status"), builder.count(order), builder.sum(order.<BigDecimal>get("totalValue"))));
+        select.where(transitionPredicates(builder, order, transition, ids));
+        List<Expression<?>> groupBy = new ArrayList<>(hour);
+        groupBy.add(order.get("status"));
+        select.groupBy(groupBy);
+        return entityManager.createQuery(select).getResultList();
+    }
+
+    // Seleção da transição: status de origem mais os IDs ou o filtro
+    private static Predicate[] transitionPredicates(CriteriaBuilder builder, Root<Order> order,
+            OrderStatusTransition transition, Collection<Long> ids) {
+        List<Predicate> where = new ArrayList<>();
+        where.add(builder.equal(order.get("status"), transition.from()));
+        if (ids != null) {
+            where.add(order.get("id").in(ids));
+        }
+        if (transition.customerId() != null) {
+            where.add(builder.equal(order.get("customer").get("id"), transition.customerId()));
+        }
+        if (transition.orderDateFrom() != null) {
+            where.add(builder.greaterThanOrEqualTo(order.get("orderDate"), transition.orderDateFrom()));
+        }
+        if (transition.orderDateTo() != null) {
+            where.add(builder.lessThan(order.get("orderDate"), transition.orderDateTo()));
+        }
+        return where.toArray(Predicate[]::new);
+    }
+
+    @Override
+    public List<OrderResponse> findPage(OrderQuery query, OrderDateCursor after, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderResponse> select = builder.createQuery(OrderResponse.class);
+        Root<Order> order = select.from(Order.class);
+        select.select(builder.construct(OrderResponse.class,
+                order.get("id"), order.get("customer").get("id"), order.get("orderDate"),
+                order.get("totalValue"), order.get("status")));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(builder.isNotNull(order.get("orderDate")));
+        if (query.status() != null) {
+            where.add(builder.equal(order.get("status"), query.status()));
+        }
+        if (query.customerId() != null) {
+            where.add(builder.equal(order.get("customer").get("id"), query.customerId()));
+        }
+        if (query.from() != null) {
+            where.add(builder.greaterThanOrEqualTo(order.get("orderDate"), query.from()));
+        }
+        if (query.to() != null) {
+            where.add(builder.lessThan(order.get("orderDate"), query.to()));
+        }
+        // Keyset: (orderDate, id) > (:afterDate, :afterId)
+        if (after != null) {
+            where.add(builder.or(
+                    builder.greaterThan(order.get("orderDate"), after.orderDate()),
+                    builder.and(
+                            builder.equal(order.get("orderDate"), after.orderDate()),
+                            builder.greaterThan(order.get("id"), after.id()))));
+        }
+        select.where(where.toArray(Predicate[]::new));
+        select.orderBy(builder.asc(order.get("orderDate")), builder.asc(order.get("id")));
+        return entityManager.createQuery(select).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.cliente.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.cliente.model.OrderStatsHourly;
+
+@Repository
+public interface OrderStatsHourlyRepository extends JpaRepository<OrderStatsHourly, OrderStatsHourly.Key> {
+
+    // Soma atômica no próprio banco: gravações concorrentes na mesma hora não se perdem
+    @Modifying
+    @Query("UPDATE OrderStatsHourly b SET b.orderCount = b.orderCount + :count, b.totalValue = b.totalValue + :value "
+            + "WHERE b.bucketStart = :bucketStart AND b.statusCode = :status")
+    int increment(@Param("bucketStart") LocalDateTime bucketStart, @Param("status") char status,
+            @Param("count") long count, @Param("value") BigDecimal value);
+
+    @Modifying
+    @Query("INSERT INTO OrderStatsHourly (bucketStart, statusCode, orderCount, totalValue) "
+            + "VALUES (:bucketStart, :status, :count, :value)")
+    int insert(@Param("bucketStart") LocalDateTime bucketStart, @Param("status") char status,
+            @Param("count") long count, @Param("value") BigDecimal value);
+
+    @Modifying
+    @Query("DELETE FROM OrderStatsHourly b WHERE b.bucketStart >= :from AND b.bucketStart < :to")
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT b FROM OrderStatsHourly b WHERE b.bucketStart >= :from AND b.bucketStart < :to "
+            + "ORDER BY b.bucketStart, b.statusCode")
+    List<OrderStatsHourly> findRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
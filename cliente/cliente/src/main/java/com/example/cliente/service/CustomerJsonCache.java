@@ -0,0 +1,152 @@
+package com.example.cliente.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import com.example.cliente.dto.CustomerResponse;
+import com.example.cliente.model.Customer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON já serializado do {@code GET /customers/{id}}, no cache {@code customerJson} ao
+ * lado do cache de entidades {@code customers}: um acerto escreve os bytes direto na
+ * resposta, sem passar pelo Jackson. Cada entrada guarda a versão e o {@code updatedAt}
+ * de que saiu, que viram o ETag e o Last-Modified da resposta.
+ *
+ * As entradas saem junto com as do cache {@code customers} (atualização, exclusão e
+ * mudança no resumo dos pedidos), depois do commit.
+ *
+ * Com {@code customers.json-cache.gzip.enabled}, a versão gzip é comprimida no primeiro
+ * pedido que a aceita e guardada na mesma entrada; JSON menor que
+ * {@code customers.json-cache.gzip.min-size} bytes, ou que não diminui, vai sem compressão.
+ */
+@Component
+public class CustomerJsonCache {
+
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${customers.json-cache.gzip.enabled:true}")
+    private boolean gzipEnabled = true;
+
+    @Value("${customers.json-cache.gzip.min-size:256}")
+    private int gzipMinSize = 256;
+
+    public CustomerJsonCache(CustomerService customerService, ObjectMapper objectMapper) {
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Cacheable(value = "customerJson", key = "#id")
+    public Entry find(Long id) {
+        Customer customer = customerService.findCustomerById(id);
+        try {
+            return new Entry(customer.getVersion(), customer.getUpdatedAt(),
+                    objectMapper.writeValueAsBytes(CustomerResponse.from(customer)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o cliente " + id, e);
+        }
+    }
+
+    /**
+     * Os bytes gzip da entrada, ou {@code null} se a compressão estiver desligada ou não
+     * compensar para esse JSON.
+     */
+    public byte[] gzip(Entry entry) {
+        if (!gzipEnabled || entry.json.length < gzipMinSize) {
+            return null;
+        }
+        byte[] gzip = entry.gzip;
+        if (gzip == null) {
+            // Duas threads podem comprimir ao mesmo tempo; o resultado é o mesmo
+            gzip = compress(entry.json);
+            entry.gzip = gzip;
+        }
+        return gzip.length == 0 ? null : gzip;
+    }
+
+    /**
+     * Se o cabeçalho {@code Accept-Encoding} aceita gzip (sem {@code q=0}). Uma entrada
+     * {@code gzip} explícita vale sobre {@code *}, em qualquer ordem.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].strip();
+            if (coding.equalsIgnoreCase("gzip")) {
+                gzip = accepted(tokens);
+            } else if (coding.equals("*")) {
+                any = accepted(tokens);
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(any);
+    }
+
+    private static boolean accepted(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].strip();
+            if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality.strip()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Vazio quando a compressão não diminui o JSON, para não tentar de novo a cada pedido
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.size() < json.length ? buffer.toByteArray() : new byte[0];
+    }
+
+    public static final class Entry {
+
+        private final Long version;
+        private final Instant updatedAt;
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        Entry(Long version, Instant updatedAt, byte[] json) {
+            this.version = version;
+            this.updatedAt = updatedAt;
+            this.json = json;
+        }
+
+        public Long version() {
+            return version;
+        }
+
+        public Instant updatedAt() {
+            return updatedAt;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+    }
+}
@@ -1,44 +1,244 @@
 package com.example.cliente.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import io.micrometer.core.annotation.Timed;
+
+import com.example.cliente.dto.CursorPage;
+import com.example.cliente.dto.CustomerBatchResult;
+import com.example.cliente.dto.CustomerDeletionResult;
+import com.example.cliente.dto.CustomerRanking;
+import com.example.cliente.dto.CustomerResponse;
+import com.example.cliente.dto.CustomerSearchHit;
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSnapshot;
+import com.example.cliente.event.CustomerSummary;
+import com.example.cliente.event.CustomerSummaryChangedEvent;
+import com.example.cliente.index.CpfIndex;
+import com.example.cliente.index.CustomerLeaderboard;
+import com.example.cliente.index.CustomerSearchIndex;
+import com.example.cliente.index.EmailFilter;
 import com.example.cliente.model.Customer;
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.exception.ConflictException;
 import com.example.cliente.exception.NotFoundException;
 import com.example.cliente.repository.CustomerRepository;
+import com.example.cliente.repository.OrderRepository;
+import com.example.cliente.stats.OrderStatsDelta;
+import com.example.cliente.stats.OrderStatsRollup;
+import com.example.cliente.stats.OrderStatsRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
+@Timed("service.method")
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final NdjsonWriter ndjsonWriter;
+    private final Validator validator;
+    private final CpfIndex cpfIndex;
+    private final EmailFilter emailFilter;
+    private final CustomerSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderStatsRollup statsRollup;
+    private final CustomerLeaderboard leaderboard;
+    private final CacheManager cacheManager;
+
+    // Quantidade de clientes gravados a cada flush no cadastro em lote
+    @Value("${customers.batch.chunk-size:500}")
+    private int batchChunkSize = 500;
+
+    @Value("${customers.batch.max-size:10000}")
+    private int batchMaxSize = 10000;
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, OrderRepository orderRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper, Validator validator, CpfIndex cpfIndex, EmailFilter emailFilter,
+            CustomerSearchIndex searchIndex, ApplicationEventPublisher eventPublisher, OrderStatsRollup statsRollup,
+            CustomerLeaderboard leaderboard, CacheManager cacheManager) {
         this.customerRepository = customerRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ndjsonWriter = new NdjsonWriter(objectMapper);
+        this.validator = validator;
+        this.cpfIndex = cpfIndex;
+        this.emailFilter = emailFilter;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.statsRollup = statsRollup;
+        this.leaderboard = leaderboard;
+        this.cacheManager = cacheManager;
     }
 
     @Transactional
     public Customer registerCustomer(Customer customer) {
+        ensureDocumentNumberIsAvailable(customer.getDocumentNumber(), null);
+        ensureEmailIsAvailable(customer.getEmail(), null);
         customer.setRegistrationDate(LocalDate.now());
-        return customerRepository.save(customer);
+        Customer savedCustomer = saveAndFlush(customer);
+        eventPublisher.publishEvent(CustomerChangedEvent.created(CustomerSnapshot.of(savedCustomer)));
+        return savedCustomer;
+    }
+
+    /**
+     * Cadastra um lote de clientes, validando cada um individualmente. Os clientes
+     * válidos e sem conflito de e-mail/CPF são gravados em blocos de
+     * {@code customers.batch.chunk-size}, cada bloco em uma transação com flush no fim
+     * para aproveitar o batching JDBC.
+     *
+     * Um CPF/e-mail gravado por outra requisição depois da verificação só aparece como
+     * violação de unicidade no flush: o bloco é desfeito (os anteriores já estão gravados)
+     * e os clientes dele são gravados um a um, com o duplicado reportado como CONFLICT.
+     */
+    public List<CustomerBatchResult> registerCustomers(List<Customer> customers) {
+        if (customers.size() > batchMaxSize) {
+            throw new BadRequestException("O lote deve ter no máximo " + batchMaxSize + " clientes");
+        }
+
+        List<CustomerBatchResult> results = new ArrayList<>(customers.size());
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchDocumentNumbers = new HashSet<>();
+        LocalDate registrationDate = LocalDate.now();
+
+        for (int start = 0; start < customers.size(); start += batchChunkSize) {
+            List<Customer> chunk = customers.subList(start, Math.min(start + batchChunkSize, customers.size()));
+            // Só consulta o banco para os e-mails/CPFs que os índices em memória apontam como possíveis duplicados
+            List<String> emails = new ArrayList<>();
+            List<String> documentNumbers = new ArrayList<>();
+            for (Customer customer : chunk) {
+                if (emailFilter.mightContain(customer.getEmail())) {
+                    emails.add(customer.getEmail());
+                }
+                if (cpfIndex.find(customer.getDocumentNumber()).isPresent()) {
+                    documentNumbers.add(customer.getDocumentNumber());
+                }
+            }
+            Set<String> existingEmails = emails.isEmpty()
+                    ? Set.of() : new HashSet<>(customerRepository.findExistingEmails(emails));
+            Set<String> existingDocumentNumbers = documentNumbers.isEmpty()
+                    ? Set.of() : new HashSet<>(customerRepository.findExistingDocumentNumbers(documentNumbers));
+
+            List<Customer> toSave = new ArrayList<>(chunk.size());
+            List<Integer> toSaveIndexes = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = start + i;
+                Customer customer = chunk.get(i);
+
+                List<String> errors = validator.validate(customer).stream()
+                        .map(ConstraintViolation::getMessage)
+                        .toList();
+                if (!errors.isEmpty()) {
+                    results.add(CustomerBatchResult.invalid(index, errors));
+                } else if (existingDocumentNumbers.contains(customer.getDocumentNumber())
+                        || !batchDocumentNumbers.add(customer.getDocumentNumber())) {
+                    results.add(CustomerBatchResult.conflict(index,
+                            "Já existe um cliente com o CPF: " + customer.getDocumentNumber()));
+                } else if (existingEmails.contains(customer.getEmail()) || !batchEmails.add(customer.getEmail())) {
+                    batchDocumentNumbers.remove(customer.getDocumentNumber());
+                    results.add(CustomerBatchResult.conflict(index,
+                            "Já existe um cliente com o e-mail: " + customer.getEmail()));
+                } else {
+                    customer.setId(null);
+                    customer.setRegistrationDate(registrationDate);
+                    toSave.add(customer);
+                    toSaveIndexes.add(index);
+                    results.add(null);
+                }
+            }
+
+            saveChunk(toSave, toSaveIndexes, results);
+        }
+        return results;
+    }
+
+    private void saveChunk(List<Customer> toSave, List<Integer> indexes, List<CustomerBatchResult> results) {
+        if (toSave.isEmpty()) {
+            return;
+        }
+        try {
+            List<Customer> saved = transactionTemplate.execute(status -> {
+                List<Customer> chunk = customerRepository.saveAll(toSave);
+                customerRepository.flush();
+                chunk.forEach(customer -> eventPublisher.publishEvent(CustomerChangedEvent.created(CustomerSnapshot.of(customer))));
+                return chunk;
+            });
+            for (int i = 0; i < saved.size(); i++) {
+                results.set(indexes.get(i), CustomerBatchResult.created(indexes.get(i), saved.get(i).getId()));
+            }
+        } catch (DataIntegrityViolationException e) {
+            for (int i = 0; i < toSave.size(); i++) {
+                results.set(indexes.get(i), saveOne(indexes.get(i), toSave.get(i)));
+            }
+        }
+    }
+
+    private CustomerBatchResult saveOne(int index, Customer customer) {
+        // ID e versão atribuídos na tentativa desfeita
+        customer.setId(null);
+        customer.setVersion(null);
+        try {
+            Customer saved = transactionTemplate.execute(status -> {
+                Customer created = customerRepository.saveAndFlush(customer);
+                eventPublisher.publishEvent(CustomerChangedEvent.created(CustomerSnapshot.of(created)));
+                return created;
+            });
+            return CustomerBatchResult.created(index, saved.getId());
+        } catch (DataIntegrityViolationException e) {
+            return CustomerBatchResult.conflict(index, "Já existe um cliente com este CPF ou e-mail");
+        }
     }
 
     @Transactional
+    @CacheEvict(value = { "customers", "customerJson" }, key = "#id")
     public Customer updateCustomer(Long id, Customer customer) {
         Optional<Customer> customerOptional = customerRepository.findById(id);
         if (customerOptional.isPresent()) {
             Customer existingCustomer = customerOptional.get();
+            if (!Objects.equals(customer.getDocumentNumber(), existingCustomer.getDocumentNumber())) {
+                ensureDocumentNumberIsAvailable(customer.getDocumentNumber(), id);
+            }
+            if (!Objects.equals(customer.getEmail(), existingCustomer.getEmail())) {
+                ensureEmailIsAvailable(customer.getEmail(), id);
+            }
+            CustomerSnapshot before = CustomerSnapshot.of(existingCustomer);
             existingCustomer.setName(customer.getName());
             existingCustomer.setEmail(customer.getEmail());
             existingCustomer.setPhone(customer.getPhone());
             existingCustomer.setDocumentNumber(customer.getDocumentNumber());
-            return customerRepository.save(existingCustomer);
+            Customer savedCustomer = saveAndFlush(existingCustomer);
+            eventPublisher.publishEvent(CustomerChangedEvent.updated(before, CustomerSnapshot.of(savedCustomer)));
+            return savedCustomer;
         } else {
             throw new NotFoundException("Cliente não encontrado com o ID: " + id);
         }
@@ -50,16 +250,154 @@ public class CustomerService {
                                 .orElseThrow(() -> new NotFoundException("Cliente não encontrado com o ID: " + id));
     }
 
-    public List<Customer> findAllCustomers() {
-        return customerRepository.findAll();
+    /**
+     * Resolve o ID do cliente pelo CPF usando o índice em memória, sem ir ao banco.
+     */
+    public Long findCustomerIdByDocumentNumber(String documentNumber) {
+        if (CpfIndex.pack(documentNumber) < 0) {
+            throw new BadRequestException("O CPF deve ter o formato 999.999.999-99");
+        }
+        OptionalLong id = cpfIndex.find(documentNumber);
+        if (id.isEmpty()) {
+            throw new NotFoundException("Cliente não encontrado com o CPF: " + documentNumber);
+        }
+        return id.getAsLong();
+    }
+
+    /**
+     * Busca por prefixo em nome e e-mail (type-ahead), servida pelo índice em memória.
+     */
+    public List<CustomerSearchHit> searchCustomers(String query, int limit) {
+        if (query == null || query.strip().length() < CustomerSearchIndex.MIN_QUERY_LENGTH) {
+            throw new BadRequestException("A busca deve ter ao menos " + CustomerSearchIndex.MIN_QUERY_LENGTH + " caracteres");
+        }
+        return searchIndex.search(query, limit);
     }
 
+    /**
+     * Os clientes com maior soma de pedidos ({@code by=ltv}), servidos pelo ranking em memória.
+     */
+    public List<CustomerRanking> findTopCustomers(String by, int limit) {
+        if (!"ltv".equalsIgnoreCase(by)) {
+            throw new BadRequestException("Valor inválido para o parâmetro by: " + by + ". Valores aceitos: [ltv]");
+        }
+        List<CustomerSummary> top = leaderboard.top(Math.max(1, Math.min(limit, leaderboard.capacity())));
+        List<CustomerRanking> ranking = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            ranking.add(CustomerRanking.of(i + 1, top.get(i)));
+        }
+        return ranking;
+    }
+
+    /**
+     * O resumo dos pedidos faz parte do cliente em cache; depois do commit de uma gravação
+     * de pedidos, os clientes afetados saem dos caches {@code customers} e {@code customerJson}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerSummaryChanged(CustomerSummaryChangedEvent event) {
+        for (String name : List.of("customers", "customerJson")) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                event.summaries().forEach(summary -> cache.evict(summary.id()));
+            }
+        }
+    }
+
+    public CursorPage<CustomerResponse> findCustomersAfter(Long after, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<CustomerResponse> rows = customerRepository.findPageAfter(
+                after == null ? 0L : after, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, CustomerResponse::id);
+    }
+
+    /**
+     * Exporta todos os clientes como NDJSON, lendo do banco em cursor. As linhas
+     * são projeções (não entidades gerenciadas), então o uso de memória fica constante.
+     */
+    @Transactional(readOnly = true)
+    public long exportCustomers(OutputStream outputStream) throws IOException {
+        try (Stream<CustomerResponse> customers = customerRepository.streamAllOrderedById()) {
+            return ndjsonWriter.write(customers, outputStream);
+        }
+    }
+
+    /**
+     * Exclui o cliente com três DELETEs por conjunto (itens, pedidos e cliente) em uma
+     * transação, em vez do cascade do JPA, que carregaria cada pedido e item e os
+     * excluiria um a um. O cliente é lido só como projeção, para o evento dos índices.
+     * O cache {@code orders} é esvaziado, já que os IDs dos pedidos não são lidos.
+     *
+     * Os pedidos saem dos agregados de estatística pela soma por hora e status feita
+     * antes dos DELETEs; se a exclusão apagar outra quantidade, um pedido chegou no meio
+     * e a transação é desfeita.
+     */
     @Transactional
-    public void deleteCustomer(Long id) {
-        if (!customerRepository.existsById(id)) {
-            throw new NotFoundException("Cliente não encontrado com o ID: " + id);
+    @Caching(evict = {
+            @CacheEvict(value = { "customers", "customerJson" }, key = "#id"),
+            @CacheEvict(value = "orders", allEntries = true) })
+    public CustomerDeletionResult deleteCustomer(Long id) {
+        CustomerSnapshot customer = customerRepository.findSnapshotById(id)
+                .orElseThrow(() -> new NotFoundException("Cliente não encontrado com o ID: " + id));
+
+        List<OrderStatsRow> stats = orderRepository.sumByHourForCustomer(id);
+        long expectedOrders = stats.stream().mapToLong(OrderStatsRow::orderCount).sum();
+
+        try {
+            int orderItems = orderRepository.deleteItemsInBulkByCustomerId(id);
+            int orders = orderRepository.deleteInBulkByCustomerId(id);
+            if (orders != expectedOrders) {
+                throw new ConflictException("O cliente recebeu um pedido durante a exclusão, tente novamente");
+            }
+            customerRepository.deleteInBulkById(id);
+            OrderStatsDelta delta = new OrderStatsDelta();
+            stats.forEach(row -> delta.add(row, row.status(), -1));
+            statsRollup.apply(delta);
+            eventPublisher.publishEvent(CustomerChangedEvent.deleted(customer));
+            return new CustomerDeletionResult(id, orders, orderItems);
+        } catch (DataIntegrityViolationException e) {
+            // Um pedido foi criado para o cliente entre o DELETE dos pedidos e o do cliente
+            throw new ConflictException("O cliente recebeu um pedido durante a exclusão, tente novamente");
+        }
+    }
+
+    /**
+     * Confere se o CPF já pertence a outro cliente. O índice em memória responde
+     * sem ir ao banco quando o CPF é novo; um acerto é confirmado com uma consulta.
+     */
+    private void ensureDocumentNumberIsAvailable(String documentNumber, Long id) {
+        if (cpfIndex.find(documentNumber).isEmpty()) {
+            return;
+        }
+        boolean exists = id == null
+                ? customerRepository.existsByDocumentNumber(documentNumber)
+                : customerRepository.existsByDocumentNumberAndIdNot(documentNumber, id);
+        if (exists) {
+            throw new ConflictException("Já existe um cliente com o CPF: " + documentNumber);
+        }
+    }
+
+    /**
+     * Confere se o e-mail já pertence a outro cliente. O filtro de Bloom descarta
+     * os e-mails novos sem ir ao banco; um possível acerto é confirmado com uma consulta.
+     */
+    private void ensureEmailIsAvailable(String email, Long id) {
+        if (!emailFilter.mightContain(email)) {
+            return;
+        }
+        boolean exists = id == null
+                ? customerRepository.existsByEmail(email)
+                : customerRepository.existsByEmailAndIdNot(email, id);
+        if (exists) {
+            throw new ConflictException("Já existe um cliente com o e-mail: " + email);
+        }
+    }
+
+    // Cadastros concorrentes podem passar pela verificação prévia; a constraint única decide
+    private Customer saveAndFlush(Customer customer) {
+        try {
+            return customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Já existe um cliente com este CPF ou e-mail");
         }
-        
-        customerRepository.deleteById(id);
     }
 }
@@ -0,0 +1,39 @@
+package com.example.cliente.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Escreve um stream de linhas como NDJSON (um objeto JSON por linha), à medida
+ * que as linhas são lidas, sem materializar o resultado em memória.
+ */
+final class NdjsonWriter {
+
+    private final ObjectWriter writer;
+
+    NdjsonWriter(ObjectMapper objectMapper) {
+        // O stream de saída pertence ao chamador; o flush fica a cargo do buffer do servlet
+        this.writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    <T> long write(Stream<T> rows, OutputStream outputStream) throws IOException {
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.writeValue(outputStream, iterator.next());
+            outputStream.write('\n');
+            count++;
+        }
+        outputStream.flush();
+        return count;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.cliente.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.cliente.exception.ServiceUnavailableException;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderItem;
+
+/**
+ * Entrada de pedidos com group commit: pedidos criados concorrentemente são
+ * agrupados por uma thread única e gravados em uma só transação, com INSERTs em lote.
+ *
+ * Um lote é fechado quando atinge {@code orders.group-commit.max-batch-size} ou
+ * quando a janela {@code orders.group-commit.window-ms} (contada a partir do
+ * primeiro pedido) expira. Se o lote falhar, cada pedido é regravado na sua
+ * própria transação, para que cada chamador receba o seu próprio ID ou erro.
+ *
+ * O chamador espera o commit por até {@code orders.group-commit.timeout-ms}; depois
+ * disso recebe 503.
+ *
+ * Desligado por padrão ({@code orders.group-commit.enabled}): o pedido espera a
+ * janela antes do commit, o que só compensa com muitos pedidos simultâneos.
+ */
+@Component
+public class OrderIntake implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntake.class);
+
+    private final OrderService orderService;
+    private final BlockingQueue<PendingOrder> queue = new LinkedBlockingQueue<>();
+
+    @Value("${orders.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.group-commit.window-ms:2}")
+    private long windowMillis = 2;
+
+    @Value("${orders.group-commit.max-batch-size:200}")
+    private int maxBatchSize = 200;
+
+    @Value("${orders.group-commit.timeout-ms:5000}")
+    private long timeoutMillis = 5000;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    private record PendingOrder(Order order, CompletableFuture<Order> result) {
+    }
+
+    public OrderIntake(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    /**
+     * Cria o pedido dentro do próximo lote e aguarda o commit desse lote.
+     * Com o group commit desligado (ou parado), grava diretamente.
+     */
+    public Order createOrder(Order order) {
+        if (!running) {
+            return orderService.createOrder(order);
+        }
+        PendingOrder pending = new PendingOrder(order, new CompletableFuture<>());
+        queue.add(pending);
+        // A thread pode ter parado entre a verificação e o enfileiramento
+        if (!running && queue.remove(pending)) {
+            return orderService.createOrder(order);
+        }
+        try {
+            return pending.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw notConfirmed(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw notConfirmed(pending);
+        }
+    }
+
+    // Fora da fila, o pedido já está em um lote e pode ser gravado depois da resposta
+    private ServiceUnavailableException notConfirmed(PendingOrder pending) {
+        if (queue.remove(pending)) {
+            return new ServiceUnavailableException("Pedido não gravado: fila de pedidos sobrecarregada, tente novamente.");
+        }
+        return new ServiceUnavailableException("O pedido não foi confirmado a tempo e pode ter sido gravado; verifique antes de reenviar.");
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "order-intake");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        try {
+            collectAndFlush(batch);
+        } catch (Throwable e) {
+            // Sem a thread, novos pedidos são gravados diretamente; os que ficaram presos falham
+            running = false;
+            log.error("Group commit de pedidos parou; pedidos passam a ser gravados diretamente", e);
+            for (PendingOrder pending : batch) {
+                pending.result().completeExceptionally(e);
+            }
+            PendingOrder queued;
+            while ((queued = queue.poll()) != null) {
+                queued.result().completeExceptionally(
+                        new ServiceUnavailableException("Pedido não gravado: group commit parado, tente novamente."));
+            }
+        }
+    }
+
+    private void collectAndFlush(List<PendingOrder> batch) {
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        // Ao parar, continua até esvaziar a fila
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingOrder> batch) {
+        List<Order> orders = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            orders.add(pending.order());
+        }
+        try {
+            List<Order> saved = orderService.createOrders(orders);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.debug("Lote de {} pedidos falhou, gravando individualmente", batch.size(), e);
+        }
+
+        for (PendingOrder pending : batch) {
+            try {
+                clearGeneratedIds(pending.order());
+                pending.result().complete(orderService.createOrder(pending.order()));
+            } catch (RuntimeException e) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    // IDs atribuídos pela sequência na transação desfeita não podem ser reaproveitados
+    private static void clearGeneratedIds(Order order) {
+        order.setId(null);
+        if (order.getOrderItems() != null) {
+            for (OrderItem item : order.getOrderItems()) {
+                item.setId(null);
+            }
+        }
+    }
+}
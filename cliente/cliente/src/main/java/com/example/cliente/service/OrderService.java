@@ -1,50 +1,308 @@
 package com.example.cliente.service;
 
+import com.example.cliente.repository.CustomerRepository;
 import com.example.cliente.repository.OrderRepository;
+import com.example.cliente.dto.CursorPage;
+import com.example.cliente.dto.OrderDateCursor;
+import com.example.cliente.dto.OrderPatch;
+import com.example.cliente.dto.OrderQuery;
+import com.example.cliente.dto.OrderResponse;
+import com.example.cliente.dto.OrderStatusTransition;
+import com.example.cliente.dto.OrderStatusTransitionResult;
+import com.example.cliente.event.OrderDeletedEvent;
 import com.example.cliente.model.Order;
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.exception.ConflictException;
 import com.example.cliente.exception.NotFoundException;
+import com.example.cliente.pricing.OrderTotals;
+import com.example.cliente.stats.OrderStatsDelta;
+import com.example.cliente.stats.OrderStatsRollup;
+import com.example.cliente.stats.OrderStatsRow;
+import com.example.cliente.stats.OrderStatsSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
+@Timed("service.method")
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final NdjsonWriter ndjsonWriter;
+    private final OrderStatsRollup statsRollup;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${orders.status-transitions.chunk-size:1000}")
+    private int transitionChunkSize = 1000;
 
     @Autowired
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository, CustomerRepository customerRepository, ObjectMapper objectMapper,
+            OrderStatsRollup statsRollup, ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
+        this.customerRepository = customerRepository;
+        this.ndjsonWriter = new NdjsonWriter(objectMapper);
+        this.statsRollup = statsRollup;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public CursorPage<OrderResponse> getOrdersAfter(Long after, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<OrderResponse> rows = orderRepository.findPageAfter(
+                after == null ? 0L : after, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, OrderResponse::id);
+    }
+
+    /**
+     * Pedidos por status e/ou cliente em um período, paginados por {@code (orderDate, id)}.
+     * Exige status ou cliente, para que a consulta use um dos índices compostos em vez
+     * de percorrer a tabela inteira.
+     */
+    public CursorPage<OrderResponse> searchOrders(OrderQuery query, String after, int limit) {
+        if (query.status() == null && query.customerId() == null) {
+            throw new BadRequestException("Informe o status ou o cliente (customerId) para filtrar os pedidos");
+        }
+        if (query.from() != null && query.to() != null && !query.from().isBefore(query.to())) {
+            throw new BadRequestException("A data inicial (from) deve ser anterior à final (to)");
+        }
+        OrderDateCursor cursor;
+        try {
+            cursor = after == null ? null : OrderDateCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor de paginação inválido: " + after);
+        }
+        int pageSize = CursorPage.clampLimit(limit);
+        List<OrderResponse> rows = orderRepository.findPage(query, cursor, pageSize + 1);
+        return CursorPage.of(rows, pageSize, row -> new OrderDateCursor(row.orderDate(), row.id()).encode());
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    /**
+     * Exporta todos os pedidos como NDJSON, lendo do banco em cursor. Cada linha
+     * é uma projeção com o ID do cliente, sem carregar clientes nem itens.
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(OutputStream outputStream) throws IOException {
+        try (Stream<OrderResponse> orders = orderRepository.streamAllOrderedById()) {
+            return ndjsonWriter.write(orders, outputStream);
+        }
+    }
+
+    /**
+     * Histórico de pedidos de um cliente, com os itens, paginado por cursor.
+     *
+     * A página é resolvida em duas fases: primeiro os IDs (com LIMIT no banco),
+     * depois os pedidos desses IDs com os itens em um fetch join.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponse> getCustomerOrders(Long customerId, Long after, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<Long> ids = orderRepository.findIdsByCustomerIdAfter(
+                customerId, after == null ? 0L : after, PageRequest.of(0, pageSize + 1));
+        CursorPage<Long> idPage = CursorPage.of(ids, pageSize, id -> id);
+        if (idPage.items().isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        List<OrderResponse> orders = orderRepository.findWithItemsByIdIn(idPage.items()).stream()
+                .map(OrderResponse::from)
+                .toList();
+        return new CursorPage<>(orders, idPage.nextCursor());
     }
 
-    public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+    /**
+     * Detalhe do pedido, servido pelo cache {@code orders} (o DTO é imutável e carrega
+     * a versão usada no ETag). Pedidos inexistentes não são guardados.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "orders", key = "#id", unless = "#result == null")
+    public Optional<OrderResponse> getOrderById(Long id) {
+        return orderRepository.findWithItemsById(id).map(OrderResponse::from);
     }
 
+    @Transactional
     public Order createOrder(Order order) {
-        return orderRepository.save(order);
+        attach(order);
+        Order saved = orderRepository.save(order);
+        statsRollup.apply(new OrderStatsDelta().add(saved));
+        return saved;
+    }
+
+    /**
+     * Grava vários pedidos em uma única transação; usado pelo {@link OrderIntake}.
+     * O flush explícito faz as violações de integridade aparecerem aqui, antes do commit.
+     */
+    @Transactional
+    public List<Order> createOrders(List<Order> orders) {
+        orders.forEach(this::attach);
+        List<Order> saved = orderRepository.saveAll(orders);
+        OrderStatsDelta stats = new OrderStatsDelta();
+        saved.forEach(stats::add);
+        statsRollup.apply(stats);
+        orderRepository.flush();
+        return saved;
+    }
+
+    /**
+     * O JSON traz o cliente só com o ID e os itens sem a referência de volta ao pedido.
+     * O cliente vira uma referência gerenciada: com {@code @Version}, um cliente solto e
+     * sem versão seria tratado pelo Hibernate como novo. Com itens, o total é recalculado
+     * a partir deles.
+     */
+    private void attach(Order order) {
+        if (order.getCustomer() != null && order.getCustomer().getId() != null) {
+            order.setCustomer(customerRepository.getReferenceById(order.getCustomer().getId()));
+        }
+        if (order.getOrderItems() != null) {
+            order.getOrderItems().forEach(item -> item.setOrder(order));
+        }
+        OrderTotals.applyTo(order);
     }
 
+    /**
+     * Copia os dados recebidos para o pedido carregado (a versão avança no commit).
+     * Itens, quando enviados, substituem os atuais; se o pedido tem itens (novos ou
+     * mantidos), o total é a soma deles.
+     */
+    @Transactional
+    @CacheEvict(value = "orders", key = "#id")
     public Order updateOrder(Long id, Order order) {
-        if (orderRepository.existsById(id)) {
-            return orderRepository.save(order);
-        } else {
-            // Tratar caso o pedido com o ID especificado não exista
+        Optional<Order> existingOrder = orderRepository.findById(id);
+        if (existingOrder.isEmpty()) {
             return null;
         }
+        Order existing = existingOrder.get();
+        OrderStatsDelta stats = new OrderStatsDelta().remove(existing);
+        attach(order);
+        if (order.getCustomer() != null) {
+            existing.setCustomer(order.getCustomer());
+        }
+        existing.setOrderDate(order.getOrderDate());
+        existing.setTotalValue(order.getTotalValue());
+        existing.setStatus(order.getStatus());
+        if (order.getOrderItems() != null) {
+            order.getOrderItems().forEach(item -> item.setOrder(existing));
+            if (existing.getOrderItems() == null) {
+                existing.setOrderItems(new ArrayList<>());
+            }
+            existing.getOrderItems().clear();
+            existing.getOrderItems().addAll(order.getOrderItems());
+            // Os itens são o lado inverso da relação e não sujam o pedido: sem isso a versão (e o ETag) não mudaria
+            existing.setUpdatedAt(Instant.now());
+        }
+        OrderTotals.applyTo(existing);
+        Order saved = orderRepository.save(existing);
+        statsRollup.apply(stats.add(saved));
+        return saved;
     }
 
-    public void deleteOrder(Long id) {
-        if(!orderRepository.existsById(id)) {
-            throw new NotFoundException("Pedido não encontrado com o ID: " + id);
+    /**
+     * Altera só os campos enviados, em um único UPDATE condicionado à versão
+     * (sem carregar o pedido). Retorna a nova versão.
+     *
+     * Antes do UPDATE é lida só a projeção com data, status, valor e versão, que diz o que
+     * muda nos agregados de estatística e separa pedido inexistente de versão desatualizada.
+     *
+     * O {@code totalValue} só pode ser alterado em pedidos sem itens; nos demais ele é a soma
+     * dos itens ({@link OrderTotals}). Itens só mudam pelo PUT, que avança a versão, então um
+     * item incluído depois da verificação faz o UPDATE condicionado falhar com 409.
+     */
+    @Transactional
+    @CacheEvict(value = "orders", key = "#id")
+    public long patchOrder(Long id, long expectedVersion, OrderPatch patch) {
+        if (patch.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um campo para atualizar");
+        }
+        OrderStatsSnapshot before = orderRepository.findStatsSnapshotById(id)
+                .orElseThrow(() -> new NotFoundException("Pedido não encontrado com o ID: " + id));
+        if (patch.totalValue() != null && orderRepository.hasItems(id)) {
+            throw new BadRequestException("O totalValue de um pedido com itens é calculado a partir dos itens; "
+                    + "altere os itens com PUT /orders/" + id);
+        }
+        if (!Long.valueOf(expectedVersion).equals(before.version())
+                || orderRepository.patch(id, expectedVersion, patch) != 1) {
+            throw new ConflictException("O pedido foi alterado por outra requisição (versão esperada: " + expectedVersion + ")");
+        }
+        statsRollup.apply(new OrderStatsDelta().remove(before).add(before.withPatch(patch)));
+        return expectedVersion + 1;
+    }
+
+    /**
+     * Transição de status em massa com UPDATEs por conjunto, sem carregar os pedidos:
+     * um único comando para o filtro, ou um por bloco de
+     * {@code orders.status-transitions.chunk-size} IDs (limita o tamanho do {@code IN}).
+     * Tudo em uma transação; o cache {@code orders} é esvaziado no fim, já que o
+     * filtro não diz quais pedidos mudaram.
+     *
+     * Antes de cada UPDATE os mesmos pedidos são somados por hora, e essas somas passam
+     * do status de origem para o de destino nos agregados de estatística. Se o UPDATE
+     * alterar outra quantidade de pedidos, algum mudou no meio e a transação é desfeita.
+     */
+    @Transactional
+    @CacheEvict(value = "orders", allEntries = true)
+    public OrderStatusTransitionResult transitionStatus(OrderStatusTransition transition) {
+        if (transition.from() == null || transition.to() == null) {
+            throw new BadRequestException("Informe os status de origem (from) e destino (to)");
+        }
+        if (transition.from().equals(transition.to())) {
+            throw new BadRequestException("Os status de origem e destino devem ser diferentes");
         }
-        
-        orderRepository.deleteById(id);
+        if (transition.hasIds() == transition.hasFilter()) {
+            throw new BadRequestException("Informe os IDs dos pedidos ou um filtro (customerId, orderDateFrom, orderDateTo), não ambos");
+        }
+
+        OrderStatsDelta stats = new OrderStatsDelta();
+        if (!transition.hasIds()) {
+            int updated = transition(transition, null, stats);
+            statsRollup.apply(stats);
+            return new OrderStatusTransitionResult(null, updated, 1);
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(transition.ids()));
+        int updated = 0;
+        int statements = 0;
+        for (int start = 0; start < ids.size(); start += transitionChunkSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + transitionChunkSize, ids.size()));
+            updated += transition(transition, chunk, stats);
+            statements++;
+        }
+        statsRollup.apply(stats);
+        return new OrderStatusTransitionResult(ids.size(), updated, statements);
+    }
+
+    private int transition(OrderStatusTransition transition, List<Long> ids, OrderStatsDelta stats) {
+        List<OrderStatsRow> candidates = orderRepository.sumTransitionCandidates(transition, ids);
+        int updated = orderRepository.transitionStatus(transition, ids);
+        if (updated != candidates.stream().mapToLong(OrderStatsRow::orderCount).sum()) {
+            throw new ConflictException("Pedidos foram alterados durante a transição de status, tente novamente");
+        }
+        candidates.forEach(row -> stats.add(row, transition.from(), -1).add(row, transition.to(), 1));
+        return updated;
+    }
+
+    @Transactional
+    @CacheEvict(value = "orders", key = "#id")
+    public void deleteOrder(Long id) {
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Pedido não encontrado com o ID: " + id));
+        orderRepository.delete(order);
+        statsRollup.apply(new OrderStatsDelta().remove(order));
+        eventPublisher.publishEvent(new OrderDeletedEvent(id));
     }
 }
@@ -0,0 +1,149 @@
+package com.example.cliente.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cliente.dto.OrderStatsBackfillResult;
+import com.example.cliente.dto.OrderStatsBucket;
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.model.OrderStatsHourly;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.repository.OrderRepository;
+import com.example.cliente.repository.OrderStatsHourlyRepository;
+import com.example.cliente.stats.OrderStatsRow;
+import com.example.cliente.stats.StatsBucket;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Relatórios de pedidos por período e status, lidos só da tabela de agregados por hora
+ * ({@code order_stats_hourly}), que as gravações de pedidos mantêm em dia. A tabela de
+ * pedidos só é lida pelo backfill, que reconstrói os agregados de um período.
+ */
+@Service
+@Timed("service.method")
+public class OrderStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatsService.class);
+
+    private static final Comparator<OrderStatsBucket> BUCKET_ORDER =
+            Comparator.comparing(OrderStatsBucket::bucketStart).thenComparing(OrderStatsBucket::status);
+
+    private final OrderStatsHourlyRepository statsRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Limita as linhas lidas por relatório: 24 horas x 5 status por dia
+    @Value("${orders.stats.max-range-days:400}")
+    private int maxRangeDays = 400;
+
+    public OrderStatsService(OrderStatsHourlyRepository statsRepository, OrderRepository orderRepository,
+            TransactionTemplate transactionTemplate) {
+        this.statsRepository = statsRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Quantidade, soma e ticket médio por intervalo e status. Entram as horas que
+     * começam em {@code [from, to)}; dias e meses somam essas horas.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderStatsBucket> stats(LocalDateTime from, LocalDateTime to, StatsBucket bucket) {
+        validateRange(from, to);
+        if (ChronoUnit.HOURS.between(from, to) > maxRangeDays * 24L) {
+            throw new BadRequestException("O período deve ter no máximo " + maxRangeDays + " dias");
+        }
+
+        Map<LocalDateTime, Map<OrderStatus, Totals>> totals = new TreeMap<>();
+        for (OrderStatsHourly hour : statsRepository.findRange(from, to)) {
+            totals.computeIfAbsent(bucket.truncate(hour.getBucketStart()), start -> new TreeMap<>())
+                    .computeIfAbsent(hour.getStatus(), status -> new Totals())
+                    .add(hour.getOrderCount(), hour.getTotalValue());
+        }
+
+        List<OrderStatsBucket> buckets = new ArrayList<>();
+        totals.forEach((start, byStatus) -> byStatus.forEach((status, stats) -> {
+            // Horas zeradas (pedidos excluídos ou movidos para outro status) não aparecem
+            if (stats.count > 0) {
+                buckets.add(new OrderStatsBucket(start, status, stats.count, stats.value,
+                        stats.value.divide(BigDecimal.valueOf(stats.count), 2, RoundingMode.HALF_EVEN)));
+            }
+        }));
+        buckets.sort(BUCKET_ORDER);
+        return buckets;
+    }
+
+    /**
+     * Reconstrói os agregados dos dias {@code [from, to)} a partir dos pedidos: um dia
+     * por transação, que apaga as horas do dia e grava as somas lidas da tabela de
+     * pedidos (um SELECT por status, pelo índice de status e data). Pode ser repetido
+     * sobre o mesmo período; serve para carregar pedidos anteriores aos agregados e para
+     * corrigir divergências.
+     */
+    public OrderStatsBackfillResult backfill(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (ChronoUnit.DAYS.between(from, to) > maxRangeDays) {
+            throw new BadRequestException("O período deve ter no máximo " + maxRangeDays + " dias");
+        }
+
+        int days = 0;
+        int buckets = 0;
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            LocalDateTime start = day.atStartOfDay();
+            LocalDateTime end = start.plusDays(1);
+            buckets += transactionTemplate.execute(status -> backfillDay(start, end));
+            days++;
+        }
+        log.info("Agregados de pedidos reconstruídos de {} a {}: {} dias, {} horas/status", from, to, days, buckets);
+        return new OrderStatsBackfillResult(from, to, days, buckets);
+    }
+
+    private int backfillDay(LocalDateTime start, LocalDateTime end) {
+        statsRepository.deleteRange(start, end);
+        int buckets = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            for (OrderStatsRow row : orderRepository.sumByHourForStatus(status, start, end)) {
+                statsRepository.insert(row.bucketStart(), status.code(), row.orderCount(),
+                        row.totalValue() == null ? BigDecimal.ZERO : row.totalValue());
+                buckets++;
+            }
+        }
+        return buckets;
+    }
+
+    private static <T extends Comparable<? super T>> void validateRange(T from, T to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Informe o período (from e to)");
+        }
+        if (from.compareTo(to) >= 0) {
+            throw new BadRequestException("A data inicial (from) deve ser anterior à final (to)");
+        }
+    }
+
+    private static final class Totals {
+
+        private long count;
+        private BigDecimal value = BigDecimal.ZERO;
+
+        void add(long orderCount, BigDecimal totalValue) {
+            count += orderCount;
+            value = value.add(totalValue);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.cliente.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Estatísticas de SQL de uma requisição HTTP: comandos executados, linhas lidas e
+ * tempo no JDBC. Fica em um {@link ThreadLocal} aberto pelo {@link SqlStatsFilter};
+ * comandos em outras threads (group commit, projetor do journal, exportações
+ * assíncronas) não entram na conta.
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> selects = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long elapsedNanos;
+    private long statementStart;
+
+    static SqlStats start() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void beforeStatement() {
+        statementStart = System.nanoTime();
+    }
+
+    void afterStatement(String sql) {
+        elapsedNanos += System.nanoTime() - statementStart;
+        statements++;
+        String normalized = normalize(sql);
+        if (normalized.regionMatches(true, 0, "select", 0, 6)) {
+            selects.merge(normalized, 1, Integer::sum);
+        }
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    public int statementCount() {
+        return statements;
+    }
+
+    public long rowCount() {
+        return rows;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * O SELECT repetido mais vezes (mesmo texto, só mudando parâmetros), se algum
+     * passou de {@code threshold} execuções: o sintoma de um N+1.
+     */
+    public Map.Entry<String, Integer> repeatedSelect(int threshold) {
+        Map.Entry<String, Integer> worst = null;
+        for (Map.Entry<String, Integer> entry : selects.entrySet()) {
+            if (entry.getValue() >= threshold && (worst == null || entry.getValue() > worst.getValue())) {
+                worst = entry;
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Troca literais por {@code ?} e colapsa listas {@code IN (?, ?, ...)}, para que
+     * comandos que diferem só nos parâmetros tenham o mesmo texto.
+     */
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.cliente.sql;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Envolve o DataSource em um proxy (datasource-proxy) que reporta comandos e linhas
+ * lidas ao {@link SqlStatsListener}. O proxy repassa {@code unwrap}, então as métricas
+ * e o health do Hikari continuam vendo o pool.
+ *
+ * Desligado por padrão ({@code sql.stats.enabled}): o proxy custa em toda chamada JDBC.
+ * Contar linhas ({@code sql.stats.count-rows}) exige ainda interceptar cada método de
+ * conexão, statement e ResultSet, o que é bem mais caro que só contar os comandos.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.stats.enabled", havingValue = "true")
+public class SqlStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final SqlStatsListener listener = new SqlStatsListener();
+
+    @Value("${sql.stats.count-rows:false}")
+    private boolean countRows;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener);
+            if (countRows) {
+                builder.methodListener(listener).proxyResultSet();
+            }
+            return builder.build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.cliente.sql;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Conta o SQL de cada requisição e devolve o resultado nos cabeçalhos
+ * {@code X-SQL-Count}, {@code X-SQL-Time} (ms) e, com {@code sql.stats.count-rows},
+ * {@code X-SQL-Rows}, mais uma linha de log
+ * {@code chave=valor}. Quando o mesmo SELECT se repete {@code sql.stats.n-plus-one-threshold}
+ * vezes ou mais, a requisição ganha o cabeçalho {@code X-SQL-N-Plus-One} e um WARN com o comando.
+ *
+ * Os cabeçalhos são gravados quando o corpo da resposta começa a ser escrito;
+ * o SQL executado depois disso (por exemplo, carga lazy na serialização) só aparece no log.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.stats.enabled", havingValue = "true")
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsFilter.class);
+
+    static final String COUNT_HEADER = "X-SQL-Count";
+    static final String ROWS_HEADER = "X-SQL-Rows";
+    static final String TIME_HEADER = "X-SQL-Time";
+    static final String N_PLUS_ONE_HEADER = "X-SQL-N-Plus-One";
+
+    @Value("${sql.stats.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold = 5;
+
+    @Value("${sql.stats.count-rows:false}")
+    private boolean countRows;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStats stats = SqlStats.start();
+        StatsResponse statsResponse = new StatsResponse(response, stats);
+        try {
+            filterChain.doFilter(request, statsResponse);
+        } finally {
+            SqlStats.clear();
+            statsResponse.writeHeaders();
+            log(request, response, stats);
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, SqlStats stats) {
+        if (stats.statementCount() == 0) {
+            return;
+        }
+        Map.Entry<String, Integer> repeated = stats.repeatedSelect(nPlusOneThreshold);
+        if (repeated != null) {
+            log.warn("method={} uri={} status={} statements={} rows={} sqlTimeMs={} nPlusOne={} sql=\"{}\"",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(), stats.statementCount(),
+                    stats.rowCount(), millis(stats), repeated.getValue(), repeated.getKey());
+        } else if (log.isInfoEnabled()) {
+            log.info("method={} uri={} status={} statements={} rows={} sqlTimeMs={}",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(), stats.statementCount(),
+                    stats.rowCount(), millis(stats));
+        }
+    }
+
+    private static String millis(SqlStats stats) {
+        return String.format(Locale.ROOT, "%.3f", stats.elapsedNanos() / 1_000_000.0);
+    }
+
+    /**
+     * Grava os cabeçalhos de SQL uma única vez, logo antes de a resposta ser confirmada.
+     */
+    private final class StatsResponse extends HttpServletResponseWrapper {
+
+        private final SqlStats stats;
+        private boolean headersWritten;
+
+        StatsResponse(HttpServletResponse response, SqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader(COUNT_HEADER, Integer.toString(stats.statementCount()));
+            if (countRows) {
+                setHeader(ROWS_HEADER, Long.toString(stats.rowCount()));
+            }
+            setHeader(TIME_HEADER, millis(stats));
+            Map.Entry<String, Integer> repeated = stats.repeatedSelect(nPlusOneThreshold);
+            if (repeated != null) {
+                setHeader(N_PLUS_ONE_HEADER, Integer.toString(repeated.getValue()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.cliente.stats;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Variação dos agregados causada por uma operação: pedidos incluídos somam, excluídos
+ * subtraem e uma alteração faz as duas coisas. São dois agregados: por hora e status
+ * (pedidos sem data ou sem status não entram) e o resumo de cada cliente.
+ *
+ * As entradas ficam ordenadas pela chave, então todas as transações atualizam as linhas
+ * de agregado na mesma ordem e não entram em deadlock umas com as outras.
+ */
+public final class OrderStatsDelta {
+
+    public record Key(LocalDateTime bucketStart, OrderStatus status) {
+    }
+
+    public record Change(long count, BigDecimal value) {
+
+        boolean isZero() {
+            return count == 0 && value.signum() == 0;
+        }
+    }
+
+    /**
+     * Variação do resumo de um cliente. {@code latestAdded} e {@code latestRemoved} são as
+     * maiores datas dos pedidos incluídos e excluídos.
+     */
+    public record CustomerChange(long count, BigDecimal value, LocalDateTime latestAdded, LocalDateTime latestRemoved) {
+
+        /**
+         * Um pedido excluído pode ter sido o último do cliente e nenhum incluído o substitui:
+         * a data do último pedido precisa ser relida.
+         */
+        public boolean removesLatest() {
+            return latestRemoved != null && (latestAdded == null || latestAdded.isBefore(latestRemoved));
+        }
+
+        boolean isZero() {
+            return count == 0 && value.signum() == 0 && Objects.equals(latestAdded, latestRemoved);
+        }
+
+        CustomerChange merge(CustomerChange other) {
+            return new CustomerChange(count + other.count, value.add(other.value),
+                    latest(latestAdded, other.latestAdded), latest(latestRemoved, other.latestRemoved));
+        }
+
+        private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+            return a == null || (b != null && b.isAfter(a)) ? b : a;
+        }
+    }
+
+    private static final Comparator<Key> ORDER = Comparator.comparing(Key::bucketStart).thenComparing(Key::status);
+
+    private final Map<Key, Change> changes = new TreeMap<>(ORDER);
+    private final Map<Long, CustomerChange> customers = new TreeMap<>();
+
+    public OrderStatsDelta add(Order order) {
+        return add(customerId(order), order.getOrderDate(), order.getStatus(), order.getTotalValue(), 1);
+    }
+
+    public OrderStatsDelta remove(Order order) {
+        return add(customerId(order), order.getOrderDate(), order.getStatus(), order.getTotalValue(), -1);
+    }
+
+    public OrderStatsDelta add(OrderStatsSnapshot order) {
+        return add(order.customerId(), order.orderDate(), order.status(), order.totalValue(), 1);
+    }
+
+    public OrderStatsDelta remove(OrderStatsSnapshot order) {
+        return add(order.customerId(), order.orderDate(), order.status(), order.totalValue(), -1);
+    }
+
+    // O cliente costuma ser uma referência não carregada; ler o ID não dispara consulta
+    private static Long customerId(Order order) {
+        return order.getCustomer() == null ? null : order.getCustomer().getId();
+    }
+
+    /**
+     * Soma (ou, com {@code sign} negativo, subtrai) um grupo já agregado no banco,
+     * atribuído ao {@code status} informado.
+     */
+    public OrderStatsDelta add(OrderStatsRow row, OrderStatus status, int sign) {
+        if (row.bucketStart() == null || status == null) {
+            return this;
+        }
+        BigDecimal value = row.totalValue() == null ? BigDecimal.ZERO : row.totalValue();
+        return merge(new Key(row.bucketStart(), status),
+                new Change(sign * row.orderCount(), sign < 0 ? value.negate() : value));
+    }
+
+    private OrderStatsDelta add(Long customerId, LocalDateTime orderDate, OrderStatus status, BigDecimal totalValue,
+            int sign) {
+        BigDecimal value = totalValue == null ? BigDecimal.ZERO : totalValue;
+        BigDecimal signedValue = sign < 0 ? value.negate() : value;
+        if (customerId != null) {
+            customers.merge(customerId, new CustomerChange(sign, signedValue,
+                    sign > 0 ? orderDate : null, sign < 0 ? orderDate : null), CustomerChange::merge);
+        }
+        if (orderDate == null || status == null) {
+            return this;
+        }
+        return merge(new Key(orderDate.truncatedTo(ChronoUnit.HOURS), status), new Change(sign, signedValue));
+    }
+
+    private OrderStatsDelta merge(Key key, Change change) {
+        changes.merge(key, change, (a, b) -> new Change(a.count() + b.count(), a.value().add(b.value())));
+        return this;
+    }
+
+    /**
+     * Percorre as variações não nulas, na ordem das chaves.
+     */
+    public void forEach(BiConsumer<Key, Change> action) {
+        changes.forEach((key, change) -> {
+            if (!change.isZero()) {
+                action.accept(key, change);
+            }
+        });
+    }
+
+    /**
+     * Percorre as variações de resumo de cliente que alteram algo, na ordem dos IDs.
+     */
+    public void forEachCustomer(BiConsumer<Long, CustomerChange> action) {
+        customers.forEach((customerId, change) -> {
+            if (!change.isZero()) {
+                action.accept(customerId, change);
+            }
+        });
+    }
+
+    public boolean isEmpty() {
+        return changes.values().stream().allMatch(Change::isZero)
+                && customers.values().stream().allMatch(CustomerChange::isZero);
+    }
+}
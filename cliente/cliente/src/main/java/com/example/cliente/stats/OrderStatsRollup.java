@@ -0,0 +1,123 @@
+package com.example.cliente.stats;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.cliente.event.CustomerSummaryChangedEvent;
+import com.example.cliente.repository.CustomerRepository;
+import com.example.cliente.repository.OrderStatsHourlyRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Aplica um {@link OrderStatsDelta} à tabela {@code order_stats_hourly}, na transação
+ * da gravação dos pedidos: os agregados nunca ficam à frente nem atrás dos pedidos.
+ *
+ * Cada hora/status é um UPDATE com soma no banco. Na primeira gravação de uma hora a
+ * linha não existe: ela é inserida já com a variação, na mesma transação e na mesma
+ * conexão (uma transação própria pediria uma segunda conexão do pool enquanto a primeira
+ * está presa, e com o pool inteiro nessa situação tudo pararia até o timeout). Se outra
+ * transação inseriu a mesma linha ao mesmo tempo, a chave duplicada desfaz só o
+ * savepoint do INSERT e a soma é refeita. O INSERT vai por JDBC na conexão da transação,
+ * não pela sessão do Hibernate, que marcaria a transação dos pedidos para rollback na violação.
+ */
+@Component
+public class OrderStatsRollup {
+
+    private static final String INSERT_SQL = "INSERT INTO order_stats_hourly "
+            + "(bucket_start, status, order_count, total_value) VALUES (?, ?, ?, ?)";
+
+    private final OrderStatsHourlyRepository repository;
+    private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderStatsRollup(OrderStatsHourlyRepository repository, CustomerRepository customerRepository,
+            EntityManager entityManager, ApplicationEventPublisher eventPublisher,
+            JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(OrderStatsDelta delta) {
+        applyHourly(delta);
+        applyCustomers(delta);
+    }
+
+    private void applyHourly(OrderStatsDelta delta) {
+        delta.forEach((key, change) -> {
+            char status = key.status().code();
+            if (repository.increment(key.bucketStart(), status, change.count(), change.value()) > 0) {
+                return;
+            }
+            try {
+                insert(key, status, change);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Criada por outra transação no meio do caminho
+            }
+            if (repository.increment(key.bucketStart(), status, change.count(), change.value()) == 0) {
+                throw new IllegalStateException("Agregado não encontrado após a criação: " + key);
+            }
+        });
+    }
+
+    // INSERT protegido por um savepoint: na chave duplicada, a transação segue utilizável
+    private void insert(OrderStatsDelta.Key key, char status, OrderStatsDelta.Change change) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                statement.setObject(1, key.bucketStart());
+                statement.setString(2, String.valueOf(status));
+                statement.setLong(3, change.count());
+                statement.setBigDecimal(4, change.value());
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    private void applyCustomers(OrderStatsDelta delta) {
+        Map<Long, OrderStatsDelta.CustomerChange> changes = new LinkedHashMap<>();
+        delta.forEachCustomer(changes::put);
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (changes.values().stream().anyMatch(OrderStatsDelta.CustomerChange::removesLatest)) {
+            // A subconsulta da data do último pedido precisa ver as alterações desta transação
+            entityManager.flush();
+        }
+        Instant now = Instant.now();
+        changes.forEach((customerId, change) -> {
+            if (change.removesLatest()) {
+                customerRepository.adjustOrderSummary(customerId, change.count(), change.value(), now);
+            } else {
+                customerRepository.addToOrderSummary(customerId, change.count(), change.value(),
+                        change.latestAdded(), now);
+            }
+        });
+        eventPublisher.publishEvent(
+                new CustomerSummaryChangedEvent(customerRepository.findSummariesByIdIn(changes.keySet())));
+    }
+}
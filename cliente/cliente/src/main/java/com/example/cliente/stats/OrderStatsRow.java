@@ -0,0 +1,25 @@
+package com.example.cliente.stats;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Pedidos agrupados por hora ({@code year}..{@code hour} da data do pedido) e status,
+ * como devolvidos pelas consultas agregadas do {@code OrderRepository}. Pedidos sem
+ * data formam um grupo com a hora nula, que entra nas contagens mas não nos agregados.
+ */
+public record OrderStatsRow(
+        Integer year,
+        Integer month,
+        Integer day,
+        Integer hour,
+        OrderStatus status,
+        Long orderCount,
+        BigDecimal totalValue) {
+
+    public LocalDateTime bucketStart() {
+        return year == null ? null : LocalDateTime.of(year, month, day, hour, 0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.cliente.stats;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.cliente.dto.OrderPatch;
+import com.example.cliente.model.OrderStatus;
+
+/**
+ * Campos de um pedido que definem a sua contribuição para os agregados, mais a versão.
+ */
+public record OrderStatsSnapshot(Long customerId, LocalDateTime orderDate, OrderStatus status, BigDecimal totalValue, Long version) {
+
+    public OrderStatsSnapshot withPatch(OrderPatch patch) {
+        return new OrderStatsSnapshot(
+                customerId,
+                patch.orderDate() != null ? patch.orderDate() : orderDate,
+                patch.status() != null ? patch.status() : status,
+                patch.totalValue() != null ? patch.totalValue() : totalValue,
+                version == null ? null : version + 1);
+    }
+}
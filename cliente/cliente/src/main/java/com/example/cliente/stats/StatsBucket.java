@@ -0,0 +1,35 @@
+package com.example.cliente.stats;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.example.cliente.exception.BadRequestException;
+
+/**
+ * Granularidade de GET /orders/stats. Os agregados são gravados por hora; dia e mês
+ * são somas das horas.
+ */
+public enum StatsBucket {
+    HOUR,
+    DAY,
+    MONTH;
+
+    public static StatsBucket parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Valor inválido para o parâmetro bucket: " + value
+                    + ". Valores aceitos: " + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return switch (this) {
+            case HOUR -> dateTime.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> dateTime.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> dateTime.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        };
+    }
+}
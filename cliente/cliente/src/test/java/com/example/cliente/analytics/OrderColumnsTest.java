@@ -0,0 +1,134 @@
+package com.example.cliente.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.cliente.model.OrderStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderColumnsTest {
+
+    private static final LocalDateTime MAY = LocalDateTime.of(2024, 5, 10, 10, 0);
+
+    @Test
+    @DisplayName("Testa que um pedido relido é sobrescrito na mesma posição e um excluído vira lápide")
+    void sobrescreveERemove() {
+        OrderColumns columns = new OrderColumns(16);
+        columns.upsert(new OrderRow(1L, 7L, MAY, new BigDecimal("10.50"), OrderStatus.NEW));
+        columns.upsert(new OrderRow(2L, 7L, MAY, new BigDecimal("3.00"), OrderStatus.NEW));
+        columns.upsert(new OrderRow(1L, 7L, MAY, new BigDecimal("12.00"), OrderStatus.PAID));
+        columns.remove(2L);
+
+        assertEquals(2, columns.size());
+        assertEquals(1, columns.liveCount());
+        assertEquals(1200, columns.totalCents[0]);
+        assertEquals(OrderStatus.PAID.ordinal(), columns.statuses[0]);
+        assertEquals(OrderColumns.DELETED, columns.statuses[1]);
+    }
+
+    @Test
+    @DisplayName("Testa que a exclusão de um cliente transforma todos os pedidos dele em lápides")
+    void removeCliente() {
+        OrderColumns columns = new OrderColumns(16);
+        columns.upsert(new OrderRow(1L, 7L, MAY, BigDecimal.ONE, OrderStatus.NEW));
+        columns.upsert(new OrderRow(2L, 8L, MAY, BigDecimal.ONE, OrderStatus.NEW));
+        columns.upsert(new OrderRow(3L, 7L, MAY, BigDecimal.ONE, OrderStatus.PAID));
+        columns.remove(3L);
+
+        assertEquals(1, columns.removeCustomer(7L));
+        assertEquals(1, columns.liveCount());
+        assertEquals(OrderColumns.DELETED, columns.statuses[0]);
+        assertEquals(OrderStatus.NEW.ordinal(), columns.statuses[1]);
+    }
+
+    @Test
+    @DisplayName("Testa que os pedidos ausentes do banco são removidos e as lápides compactadas")
+    void removeAusentesECompacta() {
+        OrderColumns columns = new OrderColumns(16);
+        for (long id = 1; id <= 3000; id++) {
+            columns.upsert(new OrderRow(id, 7L, MAY, BigDecimal.ONE, OrderStatus.NEW));
+        }
+        long[] present = new long[1000];
+        for (int i = 0; i < present.length; i++) {
+            present[i] = (i + 1) * 3L;
+        }
+
+        assertEquals(2000, columns.removeAbsent(present, present.length));
+        assertTrue(columns.compactIfNeeded());
+        assertEquals(1000, columns.size());
+        assertEquals(1000, columns.liveCount());
+        assertEquals(3L, columns.ids[0]);
+
+        columns.upsert(new OrderRow(3L, 7L, MAY, BigDecimal.TEN, OrderStatus.NEW));
+        assertEquals(1000, columns.size());
+        assertEquals(1000, columns.totalCents[0]);
+    }
+
+    @Test
+    @DisplayName("Testa que o cadastro que chega depois dos pedidos, ou que muda, é copiado para os pedidos do cliente")
+    void cadastroDoCliente() {
+        OrderColumns columns = new OrderColumns(16);
+        columns.upsert(new OrderRow(1L, 7L, MAY, BigDecimal.ONE, OrderStatus.NEW));
+        assertEquals(OrderColumns.NO_REGISTRATION, columns.registrationDays[0]);
+
+        columns.register(new CustomerRegistration(7L, LocalDate.of(2023, 1, 15)));
+        assertEquals(LocalDate.of(2023, 1, 15).toEpochDay(), columns.registrationDays[0]);
+
+        columns.register(new CustomerRegistration(7L, LocalDate.of(2022, 3, 1)));
+        columns.upsert(new OrderRow(2L, 7L, MAY, BigDecimal.ONE, OrderStatus.NEW));
+        assertEquals(LocalDate.of(2022, 3, 1).toEpochDay(), columns.registrationDays[0]);
+        assertEquals(LocalDate.of(2022, 3, 1).toEpochDay(), columns.registrationDays[1]);
+    }
+
+    @Test
+    @DisplayName("Testa que a varredura fork-join soma o mesmo que uma soma sequencial, por status, mês e turma")
+    void varreduraParalela() {
+        OrderColumns columns = new OrderColumns(16);
+        columns.register(new CustomerRegistration(1L, LocalDate.of(2023, 12, 31)));
+        columns.register(new CustomerRegistration(2L, LocalDate.of(2024, 1, 1)));
+        int orders = RevenueScan.LEAF_SIZE * 3 + 17;
+        long[] expectedCents = new long[4];
+        long[] expectedCount = new long[4];
+        for (int i = 0; i < orders; i++) {
+            long customer = 1 + i % 2;
+            LocalDateTime date = i % 3 == 0 ? MAY : MAY.plusMonths(1);
+            OrderStatus status = i % 5 == 0 ? OrderStatus.PAID : OrderStatus.NEW;
+            long cents = i % 1000;
+            columns.upsert(new OrderRow((long) i + 1, customer, date, BigDecimal.valueOf(cents, 2), status));
+            if (status == OrderStatus.NEW) {
+                int group = (int) (customer - 1) * 2 + (i % 3 == 0 ? 0 : 1);
+                expectedCents[group] += cents;
+                expectedCount[group]++;
+            }
+        }
+        RevenueFilter filter = RevenueFilter.of(EnumSet.of(AnalyticsDimension.ORDER_MONTH, AnalyticsDimension.COHORT),
+                null, null, OrderStatus.NEW);
+
+        RevenueAccumulator totals = ForkJoinPool.commonPool().invoke(new RevenueScan(columns, filter, 0, columns.size()));
+
+        long[] keys = totals.sortedKeys();
+        assertEquals(4, keys.length);
+        // Ordem das chaves: mês do pedido e depois turma (2023-12 antes de 2024-01)
+        int[] groups = { 0, 2, 1, 3 };
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(expectedCount[groups[i]], totals.count(keys[i]));
+            assertEquals(expectedCents[groups[i]], totals.cents(keys[i]));
+        }
+    }
+
+    @Test
+    @DisplayName("Testa que o mês calculado do dia desde a época bate com o LocalDate")
+    void mesDoDia() {
+        for (long day = LocalDate.of(1899, 12, 1).toEpochDay(); day <= LocalDate.of(2101, 3, 1).toEpochDay(); day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            assertEquals(date.getYear() * 12 + date.getMonthValue() - 1, RevenueScan.monthIndex(day), date.toString());
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.example.cliente.controller;
 
+import com.example.cliente.dto.CursorPage;
+import com.example.cliente.dto.CustomerResponse;
+import com.example.cliente.dto.CustomerSearchHit;
+import com.example.cliente.dto.CustomerBatchResult;
+import com.example.cliente.dto.CustomerDeletionResult;
+import com.example.cliente.dto.CustomerRanking;
+import com.example.cliente.dto.OrderItemResponse;
+import com.example.cliente.dto.OrderResponse;
 import com.example.cliente.model.Customer;
 import com.example.cliente.repository.CustomerRepository;
+import com.example.cliente.service.CustomerJsonCache;
 import com.example.cliente.service.CustomerService;
+import com.example.cliente.service.OrderService;
 import com.example.cliente.util.CustomerMockUtils;
+import com.example.cliente.exception.ConflictException;
 import com.example.cliente.exception.NotFoundException;
 import com.example.cliente.exception.InternalServerErrorException;
+import com.example.cliente.model.OrderStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,26 +28,41 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import java.util.Arrays;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
 import java.util.Collections;
 import java.util.List;
 
 @WebMvcTest(CustomerController.class)
+@Import(CustomerJsonCache.class)
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 class CustomerControllerTest {
@@ -46,6 +73,9 @@ class CustomerControllerTest {
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private OrderService orderService;
+
     @Mock
     private CustomerRepository customerRepository;
 
@@ -91,6 +121,40 @@ class CustomerControllerTest {
                 .andExpect(status().isBadRequest());
     }
     
+    @Test
+    @DisplayName("Testa a criação de um cliente com CPF já cadastrado deve retornar HTTP 409 CONFLICT")
+    void testCriarCustomerDuplicado() throws Exception {
+        Customer customer = CustomerMockUtils.criarCustomer();
+
+        when(customerService.registerCustomer(any()))
+                .thenThrow(new ConflictException("Já existe um cliente com o CPF: 999.999.999-99"));
+
+        mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customer)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors[0]").value("Já existe um cliente com o CPF: 999.999.999-99"));
+    }
+    
+    @Test
+    @DisplayName("Testa o cadastro em lote deve retornar o resultado de cada cliente")
+    void testCadastrarCustomersEmLote() throws Exception {
+        List<Customer> customers = List.of(CustomerMockUtils.criarCustomer(), CustomerMockUtils.criarCustomer());
+
+        when(customerService.registerCustomers(any())).thenReturn(List.of(
+                CustomerBatchResult.created(0, 1L),
+                CustomerBatchResult.conflict(1, "Já existe um cliente com o CPF: 999.999.999-99")));
+
+        mockMvc.perform(post("/customers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customers)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].errors[0]").value("Já existe um cliente com o CPF: 999.999.999-99"));
+    }
+    
     @Test
     @DisplayName("Testa a atualização de um cliente deve retornar HTTP 200 OK")
     void testAtualizarCustomer() throws Exception {
@@ -142,6 +206,130 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$.name").value("Nome Teste da Silva"));
     }
     
+    @Test
+    @DisplayName("Testa a busca de um cliente com o ETag atual deve retornar HTTP 304 NOT MODIFIED sem corpo")
+    void testBuscarCustomerNaoModificado() throws Exception {
+        Customer customer = CustomerMockUtils.criarCustomerResponse();
+        customer.setVersion(3L);
+        customer.setUpdatedAt(Instant.parse("2024-01-01T10:00:00Z"));
+
+        when(customerService.findCustomerById(anyLong())).thenReturn(customer);
+
+        mockMvc.perform(get("/customers/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().string("Last-Modified", "Mon, 01 Jan 2024 10:00:00 GMT"));
+
+        mockMvc.perform(get("/customers/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/customers/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Nome Teste da Silva"));
+    }
+
+    @Test
+    @DisplayName("Testa a busca de um cliente aceitando gzip deve retornar o JSON comprimido")
+    void testBuscarCustomerComGzip() throws Exception {
+        Customer customer = CustomerMockUtils.criarCustomerResponse();
+        customer.setName("Nome Teste da Silva ".repeat(20).strip());
+        customer.setVersion(3L);
+
+        when(customerService.findCustomerById(anyLong())).thenReturn(customer);
+
+        MvcResult result = mockMvc.perform(get("/customers/1").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("ETag", "\"3-gzip\""))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(customer.getName(), objectMapper.readTree(in).get("name").asText());
+        }
+
+        mockMvc.perform(get("/customers/1").header("Accept-Encoding", "gzip").header("If-None-Match", "\"3-gzip\""))
+                .andExpect(status().isNotModified());
+
+        // O ETag da versão gzip não vale para a representação sem compressão
+        mockMvc.perform(get("/customers/1").header("If-None-Match", "\"3-gzip\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.name").value(customer.getName()));
+    }
+
+    @Test
+    @DisplayName("Testa a busca de um cliente com o pool de conexões esgotado deve retornar HTTP 503 SERVICE UNAVAILABLE")
+    void testBuscarCustomerComPoolEsgotado() throws Exception {
+        when(customerService.findCustomerById(anyLong()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out after 2000ms"));
+
+        mockMvc.perform(get("/customers/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @DisplayName("Testa a busca de um cliente pelo CPF deve retornar HTTP 200 OK")
+    void testBuscarCustomerPorCpf() throws Exception {
+        when(customerService.findCustomerIdByDocumentNumber("999.999.999-99")).thenReturn(1L);
+        when(customerService.findCustomerById(1L)).thenReturn(CustomerMockUtils.criarCustomerResponse());
+
+        mockMvc.perform(get("/customers/by-document/999.999.999-99")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.documentNumber").value("999.999.999-99"));
+    }
+    
+    @Test
+    @DisplayName("Testa a busca de clientes por nome/e-mail deve retornar HTTP 200 OK")
+    void testBuscarCustomersPorTexto() throws Exception {
+        when(customerService.searchCustomers("nome", 10))
+                .thenReturn(List.of(new CustomerSearchHit(1L, "Nome Teste da Silva", "email@gmail.com")));
+
+        mockMvc.perform(get("/customers/search")
+                        .param("q", "nome")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Nome Teste da Silva"));
+    }
+
+    @Test
+    @DisplayName("Testa o histórico de pedidos do cliente deve retornar os pedidos com os itens")
+    void testBuscarPedidosDoCustomer() throws Exception {
+        OrderResponse order = new OrderResponse(3L, 1L, null, BigDecimal.valueOf(100.00), OrderStatus.NEW,
+                List.of(new OrderItemResponse(7L, 2, new BigDecimal("50.00"))));
+
+        when(customerService.findCustomerById(1L)).thenReturn(CustomerMockUtils.criarCustomerResponse());
+        when(orderService.getCustomerOrders(1L, null, 50)).thenReturn(new CursorPage<>(List.of(order), "3"));
+
+        mockMvc.perform(get("/customers/1/orders")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.items[0].orderItems[0].quantity").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("3"));
+    }
+
+    @Test
+    @DisplayName("Testa o histórico de pedidos de um cliente inexistente deve retornar HTTP 404 NOT FOUND")
+    void testBuscarPedidosDoCustomerInexistente() throws Exception {
+        when(customerService.findCustomerById(1L)).thenThrow(new NotFoundException("Cliente não encontrado com o ID: 1"));
+
+        mockMvc.perform(get("/customers/1/orders")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errors").value("Cliente não encontrado com o ID: 1"));
+
+        Mockito.verifyNoInteractions(orderService);
+    }
+
     @Test
     @DisplayName("Testa a busca de um cliente inexistente por ID deve retornar HTTP 404 NOT FOUND")
     void testBuscarCustomerInexistentePorId() throws Exception {
@@ -155,28 +343,50 @@ class CustomerControllerTest {
     }
     
     @Test
-    @DisplayName("Testa a busca de todos os clientes deve retornar HTTP 200 OK")
-    void testBuscarTodosCustomers() throws Exception {
+    @DisplayName("Testa a busca paginada de clientes deve retornar HTTP 200 OK")
+    void testBuscarCustomersPaginados() throws Exception {
         Customer customer = CustomerMockUtils.criarCustomerResponse();
-        List<Customer> customers = Collections.singletonList(customer);
+        CursorPage<CustomerResponse> customers = new CursorPage<>(Collections.singletonList(CustomerResponse.from(customer)), "1");
 
-        when(customerService.findAllCustomers()).thenReturn(customers);
+        when(customerService.findCustomersAfter(null, 50)).thenReturn(customers);
 
         mockMvc.perform(get("/customers")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].name").value("Nome Teste da Silva"));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Nome Teste da Silva"))
+                .andExpect(jsonPath("$.nextCursor").value("1"));
     }
     
     @Test
-    @DisplayName("Testa a deleção de um cliente deve retornar HTTP 204 NO CONTENT")
+    @DisplayName("Testa a exportação de clientes deve retornar NDJSON em streaming")
+    void testExportarCustomers() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(0);
+            output.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(customerService).exportCustomers(any());
+
+        MvcResult result = mockMvc.perform(get("/customers/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+    
+    @Test
+    @DisplayName("Testa a deleção de um cliente deve retornar HTTP 200 OK com os pedidos e itens excluídos")
     void testDeletarCustomer() throws Exception {
-        Mockito.doNothing().when(customerService).deleteCustomer(anyLong());
+        when(customerService.deleteCustomer(anyLong())).thenReturn(new CustomerDeletionResult(1L, 3, 6));
 
         mockMvc.perform(delete("/customers/1")
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedOrders").value(3))
+                .andExpect(jsonPath("$.deletedOrderItems").value(6));
     }
     
     @Test
@@ -203,4 +413,18 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$.errors").value("Erro interno do servidor"));
     }
 
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testa que o ranking de clientes por valor retorna HTTP 200 OK com as posições")
+    void testRankingDeClientes() throws Exception {
+        when(customerService.findTopCustomers("ltv", 2)).thenReturn(List.of(
+                new CustomerRanking(1, 3L, 4, new BigDecimal("900.00"), null),
+                new CustomerRanking(2, 1L, 2, new BigDecimal("300.00"), null)));
+
+        mockMvc.perform(get("/customers/top").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rank").value(1))
+                .andExpect(jsonPath("$[0].customerId").value(3))
+                .andExpect(jsonPath("$[1].lifetimeValue").value(300.00));
+    }
+}
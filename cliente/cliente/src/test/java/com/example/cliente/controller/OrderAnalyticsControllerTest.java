@@ -0,0 +1,87 @@
+package com.example.cliente.controller;
+
+import com.example.cliente.analytics.AnalyticsDimension;
+import com.example.cliente.analytics.OrderAnalytics;
+import com.example.cliente.dto.RevenueReport;
+import com.example.cliente.dto.RevenueRow;
+import com.example.cliente.exception.ServiceUnavailableException;
+import com.example.cliente.model.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+
+@WebMvcTest(controllers = OrderAnalyticsController.class, properties = "orders.analytics.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderAnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderAnalytics orderAnalytics;
+
+    @Test
+    @DisplayName("Testa a receita por turma e status deve retornar HTTP 200 OK só com as dimensões agrupadas")
+    void testReceitaPorTurmaEStatus() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(orderAnalytics.revenue(EnumSet.of(AnalyticsDimension.STATUS, AnalyticsDimension.COHORT), from, null, null))
+                .thenReturn(new RevenueReport(Instant.parse("2024-06-01T10:00:00Z"), 3, List.of(
+                        new RevenueRow(OrderStatus.PAID, null, YearMonth.of(2023, 12), 3,
+                                new BigDecimal("30.00"), new BigDecimal("10.00")))));
+
+        mockMvc.perform(get("/orders/analytics/revenue")
+                        .param("groupBy", "cohort,status")
+                        .param("from", "2024-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scannedOrders").value(3))
+                .andExpect(jsonPath("$.rows[0].status").value("PAID"))
+                .andExpect(jsonPath("$.rows[0].cohort").value("2023-12"))
+                .andExpect(jsonPath("$.rows[0].orderMonth").doesNotExist())
+                .andExpect(jsonPath("$.rows[0].totalValue").value(30.00));
+    }
+
+    @Test
+    @DisplayName("Testa que uma dimensão desconhecida deve retornar HTTP 400 BAD REQUEST")
+    void testReceitaDimensaoInvalida() throws Exception {
+        mockMvc.perform(get("/orders/analytics/revenue").param("groupBy", "city"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value(containsString("cohort")));
+
+        verify(orderAnalytics, never()).revenue(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Testa que, antes da primeira carga terminar, a receita deve retornar HTTP 503 SERVICE UNAVAILABLE")
+    void testReceitaDuranteACarga() throws Exception {
+        when(orderAnalytics.revenue(any(), any(), any(), any()))
+                .thenThrow(new ServiceUnavailableException("Motor de análise ainda carregando os pedidos, tente novamente."));
+
+        mockMvc.perform(get("/orders/analytics/revenue"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.errors[0]").value("Motor de análise ainda carregando os pedidos, tente novamente."));
+    }
+}
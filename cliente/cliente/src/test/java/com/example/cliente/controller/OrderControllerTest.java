@@ -1,9 +1,21 @@
 package com.example.cliente.controller;
 
+import com.example.cliente.dto.CursorPage;
+import com.example.cliente.dto.OrderPatch;
+import com.example.cliente.dto.OrderQuery;
+import com.example.cliente.dto.OrderResponse;
+import com.example.cliente.dto.OrderStatsBucket;
+import com.example.cliente.dto.OrderStatusTransition;
+import com.example.cliente.dto.OrderStatusTransitionResult;
+import com.example.cliente.exception.ConflictException;
 import com.example.cliente.exception.NotFoundException;
 import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
 import com.example.cliente.util.OrderMockUtils;
+import com.example.cliente.service.OrderIntake;
 import com.example.cliente.service.OrderService;
+import com.example.cliente.service.OrderStatsService;
+import com.example.cliente.stats.StatsBucket;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,13 +29,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.math.BigDecimal;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,6 +57,12 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderIntake orderIntake;
+
+    @MockBean
+    private OrderStatsService orderStatsService;
+
     private ObjectMapper objectMapper;
 
     private Order order;
@@ -52,7 +76,7 @@ class OrderControllerTest {
     @Test
     @DisplayName("Testa a criação de um pedido com sucesso")
     void testCreateOrderSuccess() throws Exception {
-        when(orderService.createOrder(any())).thenReturn(OrderMockUtils.criarOrderResponse());
+        when(orderIntake.createOrder(any())).thenReturn(OrderMockUtils.criarOrderResponse());
 
         mockMvc.perform(post("/orders")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -64,24 +88,40 @@ class OrderControllerTest {
     }
     
     @Test
-    @DisplayName("Testa a busca de todos os pedidos com sucesso")
-    void testGetAllOrdersSuccess() throws Exception {
-        List<Order> orders = Collections.singletonList(OrderMockUtils.criarOrderResponse());
+    @DisplayName("Testa que um preço unitário com mais de duas casas decimais deve retornar HTTP 400 BAD REQUEST")
+    void testCreateOrderPrecoComTresCasas() throws Exception {
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customer\":{\"id\":1},\"orderItems\":[{\"quantity\":1,\"unitPrice\":19.999}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value(containsString("duas casas decimais")));
 
-        when(orderService.getAllOrders()).thenReturn(orders);
+        verifyNoInteractions(orderIntake);
+    }
+
+    @Test
+    @DisplayName("Testa a busca paginada de pedidos com sucesso")
+    void testGetOrdersSuccess() throws Exception {
+        CursorPage<OrderResponse> orders = new CursorPage<>(
+                Collections.singletonList(OrderResponse.from(OrderMockUtils.criarOrderResponse())), null);
+
+        when(orderService.getOrdersAfter(5L, 10)).thenReturn(orders);
 
         mockMvc.perform(get("/orders")
+                        .param("after", "5")
+                        .param("limit", "10")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].totalValue").value(BigDecimal.valueOf(100.00)))
-                .andExpect(jsonPath("$[0].status").value("NEW"));
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].totalValue").value(BigDecimal.valueOf(100.00)))
+                .andExpect(jsonPath("$.items[0].status").value("NEW"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
     
     @Test
     @DisplayName("Testa a busca de um pedido por ID com sucesso")
     void testGetOrderByIdSuccess() throws Exception {
-        when(orderService.getOrderById(anyLong())).thenReturn(Optional.of(OrderMockUtils.criarOrderResponse()));
+        when(orderService.getOrderById(anyLong())).thenReturn(Optional.of(OrderResponse.from(OrderMockUtils.criarOrderResponse())));
 
         mockMvc.perform(get("/orders/1")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -91,6 +131,25 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value("NEW"));
     }
     
+    @Test
+    @DisplayName("Testa a busca de um pedido com o ETag atual deve retornar HTTP 304 NOT MODIFIED sem corpo")
+    void testGetOrderByIdNaoModificado() throws Exception {
+        Order order = OrderMockUtils.criarOrderResponse();
+        order.setVersion(5L);
+        order.setUpdatedAt(Instant.parse("2024-01-01T10:00:00Z"));
+        when(orderService.getOrderById(anyLong())).thenReturn(Optional.of(OrderResponse.from(order)));
+
+        mockMvc.perform(get("/orders/1").header("If-None-Match", "\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(jsonPath("$.updatedAt").doesNotExist());
+    }
+    
     @Test
     @DisplayName("Testa a busca de um pedido inexistente por ID deve retornar HTTP 404 NOT FOUND")
     void testGetOrderByIdNotFound() throws Exception {
@@ -107,7 +166,7 @@ class OrderControllerTest {
     @DisplayName("Testa a atualização de um pedido com sucesso")
     void testUpdateOrderSuccess() throws Exception {
         Order order = OrderMockUtils.criarOrder();
-        order.setStatus("PAID");
+        order.setStatus(OrderStatus.PAID);
         
         when(orderService.updateOrder(anyLong(), any())).thenReturn(order);
 
@@ -133,6 +192,117 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.errors").value("Pedido não encontrado com o ID: 1"));
     }
     
+    @Test
+    @DisplayName("Testa o PATCH de um pedido com If-Match deve retornar HTTP 204 NO CONTENT com o novo ETag")
+    void testPatchOrder() throws Exception {
+        when(orderService.patchOrder(eq(1L), eq(3L), any(OrderPatch.class))).thenReturn(4L);
+
+        mockMvc.perform(patch("/orders/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PAID\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(orderService).patchOrder(1L, 3L, new OrderPatch(null, null, OrderStatus.PAID));
+    }
+
+    @Test
+    @DisplayName("Testa o PATCH de um pedido alterado por outra requisição deve retornar HTTP 409 CONFLICT")
+    void testPatchOrderConflito() throws Exception {
+        when(orderService.patchOrder(eq(1L), eq(3L), any(OrderPatch.class)))
+                .thenThrow(new ConflictException("O pedido foi alterado por outra requisição (versão esperada: 3)"));
+
+        mockMvc.perform(patch("/orders/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PAID\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Testa o PATCH de um pedido sem If-Match deve retornar HTTP 400 BAD REQUEST")
+    void testPatchOrderSemIfMatch() throws Exception {
+        mockMvc.perform(patch("/orders/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PAID\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("Testa a transição de status em massa deve retornar HTTP 200 OK com as contagens")
+    void testTransitionStatus() throws Exception {
+        when(orderService.transitionStatus(any(OrderStatusTransition.class)))
+                .thenReturn(new OrderStatusTransitionResult(3, 2, 1));
+
+        mockMvc.perform(post("/orders/status-transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"from\":\"NEW\",\"to\":\"SHIPPED\",\"ids\":[1,2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.updated").value(2));
+    }
+
+    @Test
+    @DisplayName("Testa as estatísticas por dia devem retornar HTTP 200 OK com quantidade, soma e ticket médio")
+    void testGetOrderStats() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 6, 1, 0, 0);
+        when(orderStatsService.stats(from, to, StatsBucket.DAY)).thenReturn(List.of(new OrderStatsBucket(
+                LocalDateTime.of(2024, 5, 10, 0, 0), OrderStatus.PAID, 4, new BigDecimal("100.00"), new BigDecimal("25.00"))));
+
+        mockMvc.perform(get("/orders/stats")
+                        .param("from", "2024-05-01T00:00:00")
+                        .param("to", "2024-06-01T00:00:00")
+                        .param("bucket", "DAY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("PAID"))
+                .andExpect(jsonPath("$[0].orderCount").value(4))
+                .andExpect(jsonPath("$[0].averageTicket").value(25.00));
+    }
+
+    @Test
+    @DisplayName("Testa as estatísticas com granularidade desconhecida devem retornar HTTP 400 Bad Request")
+    void testGetOrderStatsBucketInvalido() throws Exception {
+        mockMvc.perform(get("/orders/stats")
+                        .param("from", "2024-05-01T00:00:00")
+                        .param("to", "2024-06-01T00:00:00")
+                        .param("bucket", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Valores aceitos: [hour, day, month]")));
+
+        verifyNoInteractions(orderStatsService);
+    }
+
+    @Test
+    @DisplayName("Testa a listagem filtrada por status e período deve usar a busca paginada por data")
+    void testGetOrdersByStatus() throws Exception {
+        OrderQuery query = new OrderQuery(OrderStatus.PAID, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+        when(orderService.searchOrders(query, null, 50)).thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(get("/orders")
+                        .param("status", "PAID")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-02-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+
+        verify(orderService).searchOrders(query, null, 50);
+    }
+
+    @Test
+    @DisplayName("Testa a listagem com status desconhecido deve retornar HTTP 400 BAD REQUEST")
+    void testGetOrdersStatusInvalido() throws Exception {
+        mockMvc.perform(get("/orders").param("status", "LOST"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value(containsString("SHIPPED")));
+
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     @DisplayName("Testa a deleção de um pedido com sucesso")
     void testDeleteOrderSuccess() throws Exception {
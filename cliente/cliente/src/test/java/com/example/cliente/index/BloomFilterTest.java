@@ -0,0 +1,41 @@
+package com.example.cliente.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Testa que não há falsos negativos e a taxa de falsos positivos fica perto da configurada")
+    void semFalsosNegativos() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("cliente" + i + "@gmail.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("cliente" + i + "@gmail.com"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain("cliente" + i + "@gmail.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "Falsos positivos: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Testa que o filtro fica vazio após limpar")
+    void limpar() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        filter.add("email@gmail.com");
+
+        filter.clear();
+
+        assertFalse(filter.mightContain("email@gmail.com"));
+    }
+}
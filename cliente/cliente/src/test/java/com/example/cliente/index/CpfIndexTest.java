@@ -0,0 +1,43 @@
+package com.example.cliente.index;
+
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.OptionalLong;
+
+class CpfIndexTest {
+
+    private final CpfIndex cpfIndex = new CpfIndex();
+
+    @Test
+    @DisplayName("Testa o empacotamento do CPF formatado ou só com dígitos")
+    void empacotarCpf() {
+        assertEquals(99999999999L, CpfIndex.pack("999.999.999-99"));
+        assertEquals(12345678901L, CpfIndex.pack("12345678901"));
+        assertEquals(-1L, CpfIndex.pack("123.456.789"));
+        assertEquals(-1L, CpfIndex.pack("123.456.789-0a"));
+        assertEquals(-1L, CpfIndex.pack(null));
+    }
+
+    @Test
+    @DisplayName("Testa que o índice acompanha cadastro, troca de CPF e exclusão")
+    void acompanhaEventos() {
+        CustomerSnapshot original = new CustomerSnapshot(1L, "Nome", "email@gmail.com", "999.999.999-99");
+        CustomerSnapshot novoCpf = new CustomerSnapshot(1L, "Nome", "email@gmail.com", "111.111.111-11");
+
+        cpfIndex.onCustomerChanged(CustomerChangedEvent.created(original));
+        assertEquals(OptionalLong.of(1L), cpfIndex.find("99999999999"));
+
+        cpfIndex.onCustomerChanged(CustomerChangedEvent.updated(original, novoCpf));
+        assertEquals(OptionalLong.empty(), cpfIndex.find("999.999.999-99"));
+        assertEquals(OptionalLong.of(1L), cpfIndex.find("111.111.111-11"));
+
+        cpfIndex.onCustomerChanged(CustomerChangedEvent.deleted(novoCpf));
+        assertEquals(OptionalLong.empty(), cpfIndex.find("111.111.111-11"));
+        assertEquals(0, cpfIndex.size());
+    }
+}
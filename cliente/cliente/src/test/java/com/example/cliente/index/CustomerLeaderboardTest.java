@@ -0,0 +1,120 @@
+package com.example.cliente.index;
+
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSnapshot;
+import com.example.cliente.event.CustomerSummary;
+import com.example.cliente.event.CustomerSummaryChangedEvent;
+import com.example.cliente.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+class CustomerLeaderboardTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+
+    private final CustomerLeaderboard leaderboard = new CustomerLeaderboard(customerRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(leaderboard, "capacity", 3);
+        when(customerRepository.findTopByLifetimeValue(PageRequest.of(0, 3)))
+                .thenReturn(List.of(summary(1L, "300.00"), summary(2L, "200.00"), summary(3L, "100.00")));
+    }
+
+    @Test
+    @DisplayName("Testa que o ranking é carregado do banco na primeira leitura e servido da memória nas seguintes")
+    void carregaUmaVez() {
+        assertEquals(List.of(1L, 2L), ids(leaderboard.top(2)));
+        assertEquals(List.of(1L, 2L, 3L), ids(leaderboard.top(10)));
+        verify(customerRepository, times(1)).findTopByLifetimeValue(any());
+    }
+
+    @Test
+    @DisplayName("Testa que um cliente que sobe acima do último entra no lugar dele sem consultar o banco")
+    void clienteQueSobeEntraNoRanking() {
+        leaderboard.top(3);
+
+        leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(9L, "250.00"), summary(8L, "50.00"))));
+        leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(1L, "310.00", 2L))));
+
+        assertEquals(List.of(1L, 9L, 2L), ids(leaderboard.top(3)));
+        assertEquals(0, new BigDecimal("310.00").compareTo(leaderboard.top(1).get(0).lifetimeValue()));
+        verify(customerRepository, times(1)).findTopByLifetimeValue(any());
+    }
+
+    @Test
+    @DisplayName("Testa que um cliente que desce abaixo do último ou é excluído faz o ranking ser relido do banco")
+    void clienteQueDesceRecarrega() {
+        leaderboard.top(3);
+
+        leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(2L, "10.00", 2L))));
+        leaderboard.top(3);
+        leaderboard.onCustomerChanged(CustomerChangedEvent.deleted(new CustomerSnapshot(1L, "Nome", "email@gmail.com", "111.111.111-11")));
+        leaderboard.top(3);
+
+        verify(customerRepository, times(3)).findTopByLifetimeValue(any());
+    }
+
+    @Test
+    @DisplayName("Testa que um cliente que desce sem passar do último continua no ranking sem recarga")
+    void clienteQueDescePoucoContinua() {
+        leaderboard.top(3);
+
+        leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(1L, "150.00", 2L))));
+
+        assertEquals(List.of(2L, 1L, 3L), ids(leaderboard.top(3)));
+        verify(customerRepository, times(1)).findTopByLifetimeValue(any());
+    }
+
+    @Test
+    @DisplayName("Testa que um resumo entregue fora de ordem, mais antigo que o aplicado, é ignorado")
+    void resumoAntigoIgnorado() {
+        leaderboard.top(3);
+
+        leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(9L, "250.00", 5L))));
+        leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(9L, "900.00", 4L))));
+        // Versão 1 é a que veio do banco na carga
+        leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(2L, "950.00", 1L))));
+
+        assertEquals(List.of(1L, 9L, 2L), ids(leaderboard.top(3)));
+        assertEquals(0, new BigDecimal("250.00").compareTo(leaderboard.top(2).get(1).lifetimeValue()));
+    }
+
+    @Test
+    @DisplayName("Testa que eventos recebidos durante a consulta da recarga são aplicados sobre o resultado")
+    void eventosDuranteARecarga() {
+        when(customerRepository.findTopByLifetimeValue(PageRequest.of(0, 3))).thenAnswer(invocation -> {
+            // Commits depois da leitura do banco, entregues antes da troca do conjunto
+            leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(3L, "400.00", 2L))));
+            leaderboard.onCustomerSummaryChanged(new CustomerSummaryChangedEvent(List.of(summary(1L, "900.00", 1L))));
+            leaderboard.onCustomerChanged(CustomerChangedEvent.deleted(new CustomerSnapshot(2L, "Nome", "email@gmail.com", "222.222.222-22")));
+            return List.of(summary(1L, "300.00"), summary(2L, "200.00"), summary(3L, "100.00"));
+        });
+
+        List<CustomerSummary> top = leaderboard.top(3);
+
+        assertEquals(List.of(3L, 1L), ids(top));
+        assertEquals(0, new BigDecimal("300.00").compareTo(top.get(1).lifetimeValue()));
+    }
+
+    private static CustomerSummary summary(Long id, String lifetimeValue) {
+        return summary(id, lifetimeValue, 1L);
+    }
+
+    private static CustomerSummary summary(Long id, String lifetimeValue, long version) {
+        return new CustomerSummary(id, 1, new BigDecimal(lifetimeValue), null, version);
+    }
+
+    private static List<Long> ids(List<CustomerSummary> summaries) {
+        return summaries.stream().map(CustomerSummary::id).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.cliente.index;
+
+import com.example.cliente.dto.CustomerSearchHit;
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class CustomerSearchIndexTest {
+
+    private final CustomerSearchIndex searchIndex = new CustomerSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        searchIndex.add(new CustomerSnapshot(1L, "João da Silva", "joao.silva@gmail.com", "111.111.111-11"));
+        searchIndex.add(new CustomerSnapshot(2L, "Maria Silveira", "maria@empresa.com.br", "222.222.222-22"));
+        searchIndex.add(new CustomerSnapshot(3L, "Silva", "contato@silva.com", "333.333.333-33"));
+    }
+
+    private static List<Long> ids(List<CustomerSearchHit> hits) {
+        return hits.stream().map(CustomerSearchHit::id).toList();
+    }
+
+    @Test
+    @DisplayName("Testa a busca por prefixo ignorando acentos e maiúsculas")
+    void buscaPorPrefixoSemAcentos() {
+        assertEquals(List.of(1L), ids(searchIndex.search("JOAO", 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search("joã", 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search("maria@emp", 10)));
+    }
+
+    @Test
+    @DisplayName("Testa que todos os termos da busca precisam casar e que termo exato vem antes de prefixo")
+    void rankingETodosOsTermos() {
+        assertEquals(List.of(3L, 1L, 2L), ids(searchIndex.search("silv", 10)));
+        assertEquals(List.of(3L, 1L), ids(searchIndex.search("silva", 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search("silva joão", 10)));
+        assertEquals(List.of(3L), ids(searchIndex.search("silv", 1)));
+        assertTrue(searchIndex.search("pedro", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testa que a busca parte do termo mais raro e conta cada cliente uma vez")
+    void buscaPeloTermoMaisRaro() {
+        searchIndex.add(new CustomerSnapshot(4L, "Silvana Silveira Silva", "silvana@gmail.com", "444.444.444-44"));
+        searchIndex.add(new CustomerSnapshot(5L, "Silva", "silva@gmail.com", "555.555.555-55"));
+
+        assertEquals(List.of(3L, 5L, 4L, 1L, 2L), ids(searchIndex.search("silv", 10)));
+        assertEquals(List.of(3L, 5L), ids(searchIndex.search("silv", 2)));
+        assertEquals(List.of(4L), ids(searchIndex.search("silva silvan", 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search("joao silv", 10)));
+    }
+
+    @Test
+    @DisplayName("Testa que o índice acompanha alteração de nome e exclusão")
+    void acompanhaEventos() {
+        CustomerSnapshot antes = new CustomerSnapshot(2L, "Maria Silveira", "maria@empresa.com.br", "222.222.222-22");
+        CustomerSnapshot depois = new CustomerSnapshot(2L, "Maria Souza", "maria@empresa.com.br", "222.222.222-22");
+
+        searchIndex.onCustomerChanged(CustomerChangedEvent.updated(antes, depois));
+        assertEquals(List.of(2L), ids(searchIndex.search("souza", 10)));
+        assertTrue(searchIndex.search("silveira", 10).isEmpty());
+
+        searchIndex.onCustomerChanged(CustomerChangedEvent.deleted(depois));
+        assertTrue(searchIndex.search("maria", 10).isEmpty());
+        assertEquals(2, searchIndex.size());
+    }
+}
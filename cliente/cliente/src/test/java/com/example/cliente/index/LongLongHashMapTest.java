@@ -0,0 +1,63 @@
+package com.example.cliente.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class LongLongHashMapTest {
+
+    @Test
+    @DisplayName("Testa inserção, substituição, busca e remoção")
+    void operacoesBasicas() {
+        LongLongHashMap map = new LongLongHashMap(4);
+
+        map.put(99999999999L, 1L);
+        map.put(12345678901L, 2L);
+        map.put(99999999999L, 3L);
+
+        assertEquals(2, map.size());
+        assertEquals(3L, map.get(99999999999L, -1L));
+        assertEquals(2L, map.get(12345678901L, -1L));
+        assertEquals(-1L, map.get(1L, -1L));
+        assertTrue(map.remove(12345678901L));
+        assertFalse(map.remove(12345678901L));
+        assertEquals(-1L, map.get(12345678901L, -1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    @DisplayName("Testa o mapa contra um HashMap com operações aleatórias, incluindo crescimento e remoções")
+    void equivalenteAoHashMap() {
+        LongLongHashMap map = new LongLongHashMap(16);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(50_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 50_000; key++) {
+            assertEquals(expected.getOrDefault(key, -1L), map.get(key, -1L));
+        }
+    }
+
+    @Test
+    @DisplayName("Testa que chaves negativas são rejeitadas")
+    void chaveNegativa() {
+        LongLongHashMap map = new LongLongHashMap(4);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1L, 1L));
+    }
+}
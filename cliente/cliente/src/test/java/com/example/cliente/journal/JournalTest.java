@@ -0,0 +1,156 @@
+package com.example.cliente.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+class JournalTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(JournalEntry entry) {
+        return new String(entry.payload(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Testa que as entradas são lidas na ordem, atravessando segmentos, e recuperadas após reabrir")
+    void gravaLeEReabre() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 0)) {
+            for (int i = 1; i <= 20; i++) {
+                assertEquals(i, journal.append(bytes("pedido-" + i)));
+            }
+            assertTrue(journal.segmentCount() > 1);
+
+            List<JournalEntry> entries = journal.read(5, 3);
+            assertEquals(List.of(5L, 6L, 7L), entries.stream().map(JournalEntry::sequence).toList());
+            assertEquals("pedido-5", text(entries.get(0)));
+            // Continua do ponto da leitura anterior
+            assertEquals(8L, journal.read(8, 1).get(0).sequence());
+        }
+
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 0)) {
+            assertEquals(20, journal.lastSequence());
+            assertEquals(20, journal.read(1, 100).size());
+            assertEquals(21, journal.append(bytes("pedido-21")));
+            assertEquals("pedido-21", text(journal.read(21, 10).get(0)));
+        }
+    }
+
+    @Test
+    @DisplayName("Testa que uma entrada incompleta no fim do journal é descartada na abertura")
+    void descartaCaudaIncompleta() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 0)) {
+            journal.append(bytes("pedido-1"));
+            journal.append(bytes("pedido-2"));
+        }
+
+        // Simula uma escrita interrompida: cabeçalho com tamanho, mas sem conteúdo/CRC válidos
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        int tail = 2 * (Journal.HEADER_SIZE + "pedido-1".length());
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(30).putLong(3);
+            channel.write(torn.flip(), tail);
+        }
+
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 0)) {
+            assertEquals(2, journal.lastSequence());
+            assertEquals(3, journal.append(bytes("pedido-3")));
+            assertEquals(List.of("pedido-1", "pedido-2", "pedido-3"),
+                    journal.read(1, 10).stream().map(JournalTest::text).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Testa que o conteúdo de uma escrita interrompida antes do tamanho é zerado na abertura")
+    void zeraCaudaSemTamanho() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 0)) {
+            journal.append(bytes("pedido-1"));
+        }
+
+        // Queda depois do conteúdo e antes do tamanho: o campo de tamanho continua zerado
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        int tail = Journal.HEADER_SIZE + "pedido-1".length();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("conteudo-de-um-pedido-muito-maior")), tail + Journal.HEADER_SIZE);
+        }
+
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 0)) {
+            assertEquals(1, journal.lastSequence());
+        }
+        byte[] content = Files.readAllBytes(segment);
+        for (int p = tail; p < content.length; p++) {
+            assertEquals(0, content[p], "byte não zerado na posição " + p);
+        }
+    }
+
+    @Test
+    @DisplayName("Testa que a leitura recusa uma entrada com CRC inválido")
+    void leituraConfereCrc() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 0)) {
+            journal.append(bytes("pedido-1"));
+            journal.append(bytes("pedido-2"));
+
+            Path segment;
+            try (Stream<Path> files = Files.list(directory)) {
+                segment = files.findFirst().orElseThrow();
+            }
+            int second = Journal.HEADER_SIZE + "pedido-1".length();
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(bytes("X")), second + Journal.HEADER_SIZE);
+            }
+
+            IllegalStateException error = assertThrows(IllegalStateException.class, () -> journal.read(1, 10));
+            assertTrue(error.getMessage().contains("sequência esperada 2"));
+        }
+    }
+
+    @Test
+    @DisplayName("Testa a remoção de segmentos já aplicados e a numeração a partir do checkpoint")
+    void removeSegmentosEContinuaDoCheckpoint() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 0)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.append(bytes("pedido-" + i));
+            }
+            int before = journal.segmentCount();
+            journal.deleteSegmentsBefore(21);
+            assertEquals(1, journal.segmentCount());
+            assertTrue(before > 1);
+            assertEquals(20, journal.read(1, 100).stream().mapToLong(JournalEntry::sequence).max().orElseThrow());
+        }
+
+        // Journal perdido, mas o banco já aplicou até a sequência 50: não pode reaproveitar a numeração
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE, 0, 50)) {
+            assertEquals(51, journal.append(bytes("pedido-51")));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.cliente.journal;
+
+import com.example.cliente.model.Customer;
+import com.example.cliente.model.JournalCheckpoint;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.repository.CustomerRepository;
+import com.example.cliente.repository.JournalCheckpointRepository;
+import com.example.cliente.repository.OrderRepository;
+import com.example.cliente.stats.OrderStatsRollup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class OrderJournalProjectorTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderStatsRollup statsRollup;
+
+    private final JournalCheckpoint checkpoint = new JournalCheckpoint(OrderJournal.CHECKPOINT, 0);
+
+    private OrderJournal orderJournal;
+
+    private OrderJournalProjector projector;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(checkpointRepository.findById(OrderJournal.CHECKPOINT)).thenReturn(Optional.of(checkpoint));
+        lenient().when(customerRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Customer customer = new Customer();
+            customer.setId(invocation.getArgument(0));
+            return customer;
+        });
+
+        orderJournal = new OrderJournal(new ObjectMapper().findAndRegisterModules(), checkpointRepository,
+                directory.toString(), 1 << 16, 0);
+        projector = new OrderJournalProjector(orderJournal, orderRepository, customerRepository,
+                checkpointRepository, new TransactionTemplate(transactionManager), statsRollup);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        orderJournal.close();
+    }
+
+    private static Order pedido(long customerId) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        return new Order(customer, LocalDateTime.of(2024, 1, 1, 10, 0), BigDecimal.TEN, OrderStatus.NEW);
+    }
+
+    @Test
+    @DisplayName("Testa que o lote é gravado junto com o checkpoint e entradas já aplicadas não são regravadas")
+    @SuppressWarnings("unchecked")
+    void aplicaLoteDeFormaIdempotente() {
+        orderJournal.append(pedido(1));
+        orderJournal.append(pedido(2));
+        orderJournal.append(pedido(3));
+        // Simula um restart depois de a sequência 1 já ter sido aplicada
+        checkpoint.setSequence(1);
+
+        assertEquals(3, projector.applyPending());
+
+        ArgumentCaptor<List<Order>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository).saveAll(saved.capture());
+        assertEquals(List.of(2L, 3L), saved.getValue().stream().map(order -> order.getCustomer().getId()).toList());
+        assertEquals(3, checkpoint.getSequence());
+        assertEquals(3, projector.appliedSequence());
+        assertEquals(0, projector.lag());
+        assertEquals(0, projector.applyPending());
+    }
+
+    @Test
+    @DisplayName("Testa que uma entrada rejeitada pelo banco é descartada sem bloquear as demais")
+    @SuppressWarnings("unchecked")
+    void descartaEntradaRejeitada() {
+        orderJournal.append(pedido(1));
+        orderJournal.append(pedido(999));
+        orderJournal.append(pedido(3));
+
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            if (orders.stream().anyMatch(order -> order.getCustomer().getId() == 999L)) {
+                throw new DataIntegrityViolationException("FK");
+            }
+            return orders;
+        });
+
+        assertEquals(3, projector.applyPending());
+
+        assertEquals(3, checkpoint.getSequence());
+        assertEquals(3, projector.appliedSequence());
+        // Um lote com as três, e depois uma tentativa para cada entrada
+        verify(orderRepository, times(4)).saveAll(anyList());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.cliente.pricing;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderItem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderTotalsTest {
+
+    @Test
+    @DisplayName("Testa que a soma em centavos é exata: dez itens de 0,10 somam 1,00")
+    void somaExata() {
+        OrderItem item = new OrderItem();
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("0.10"));
+        List<OrderItem> items = Collections.nCopies(10, item);
+
+        assertEquals(100, OrderTotals.totalCents(items));
+        assertEquals(new BigDecimal("1.00"), OrderTotals.toBigDecimal(OrderTotals.totalCents(items)));
+    }
+
+    @Test
+    @DisplayName("Testa que um pedido sem itens mantém o total informado")
+    void pedidoSemItens() {
+        Order order = new Order(null, null, new BigDecimal("42.00"), null);
+        order.setOrderItems(List.of());
+
+        OrderTotals.applyTo(order);
+
+        assertEquals(new BigDecimal("42.00"), order.getTotalValue());
+    }
+
+    @Test
+    @DisplayName("Testa que um total que não cabe em long é rejeitado em vez de estourar")
+    void totalQueEstoura() {
+        Order order = new Order();
+        order.setOrderItems(List.of(new OrderItem(order, Integer.MAX_VALUE, Long.MAX_VALUE / 2)));
+
+        assertThrows(ArithmeticException.class, () -> OrderTotals.totalCents(order.getOrderItems()));
+        assertThrows(BadRequestException.class, () -> OrderTotals.applyTo(order));
+    }
+
+    @Test
+    @DisplayName("Testa que o preço em reais vira centavos sem arredondar")
+    void precoEmReais() {
+        OrderItem item = new OrderItem();
+
+        item.setUnitPrice(new BigDecimal("19.9"));
+        assertEquals(1990, item.getUnitPriceCents());
+        assertEquals(new BigDecimal("19.90"), item.getUnitPrice());
+        assertThrows(IllegalArgumentException.class, () -> item.setUnitPrice(new BigDecimal("19.999")));
+    }
+}
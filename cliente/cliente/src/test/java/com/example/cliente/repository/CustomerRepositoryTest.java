@@ -0,0 +1,136 @@
+package com.example.cliente.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.cliente.event.CustomerSummary;
+
+import com.example.cliente.model.Customer;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.model.OrderItem;
+import com.example.cliente.util.CustomerMockUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class CustomerRepositoryTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Testa que a exclusão por conjunto remove itens, pedidos e o cliente, preservando os outros clientes")
+    void exclusaoPorConjunto() {
+        Customer customer = persistCustomer("um@gmail.com", "111.111.111-11");
+        Customer other = persistCustomer("outro@gmail.com", "222.222.222-22");
+        persistOrder(customer, 2);
+        persistOrder(customer, 3);
+        Order otherOrder = persistOrder(other, 1);
+        entityManager.clear();
+
+        int items = orderRepository.deleteItemsInBulkByCustomerId(customer.getId());
+        int orders = orderRepository.deleteInBulkByCustomerId(customer.getId());
+        int customers = customerRepository.deleteInBulkById(customer.getId());
+        entityManager.clear();
+
+        assertEquals(5, items);
+        assertEquals(2, orders);
+        assertEquals(1, customers);
+        assertNull(entityManager.find(Customer.class, customer.getId()));
+        assertEquals(List.of(otherOrder.getId()), orderRepository.findAll().stream().map(Order::getId).toList());
+        assertEquals(1, entityManager.find(Order.class, otherOrder.getId()).getOrderItems().size());
+    }
+
+    @Test
+    @DisplayName("Testa que o resumo soma pedidos, guarda a maior data e avança a versão sem passar pelo UPDATE da entidade")
+    void resumoDePedidosPorSoma() {
+        Customer customer = persistCustomer("um@gmail.com", "111.111.111-11");
+        entityManager.flush();
+        Long version = customer.getVersion();
+
+        customerRepository.addToOrderSummary(customer.getId(), 2, new BigDecimal("30.00"), LocalDateTime.of(2024, 3, 1, 10, 0), Instant.now());
+        customerRepository.addToOrderSummary(customer.getId(), 1, new BigDecimal("5.00"), LocalDateTime.of(2024, 2, 1, 10, 0), Instant.now());
+        entityManager.clear();
+
+        Customer updated = entityManager.find(Customer.class, customer.getId());
+        assertEquals(3, updated.getOrderCount());
+        assertEquals(0, new BigDecimal("35.00").compareTo(updated.getLifetimeValue()));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 10, 0), updated.getLastOrderDate());
+        assertEquals(version + 2, updated.getVersion());
+
+        // Um UPDATE da entidade não sobrescreve o resumo
+        updated.setName("Outro Nome");
+        entityManager.flush();
+        customerRepository.addToOrderSummary(customer.getId(), 1, BigDecimal.ONE, null, Instant.now());
+        entityManager.clear();
+        assertEquals(4, entityManager.find(Customer.class, customer.getId()).getOrderCount());
+    }
+
+    @Test
+    @DisplayName("Testa que o ajuste do resumo relê a data do último pedido restante")
+    void ajusteReleDataDoUltimoPedido() {
+        Customer customer = persistCustomer("um@gmail.com", "111.111.111-11");
+        Order older = persistOrder(customer, 0);
+        Order newer = entityManager.persistAndFlush(
+                new Order(customer, LocalDateTime.of(2024, 6, 1, 10, 0), new BigDecimal("50.00"), OrderStatus.NEW));
+        customerRepository.addToOrderSummary(customer.getId(), 2, new BigDecimal("150.00"), newer.getOrderDate(), Instant.now());
+        entityManager.remove(newer);
+        entityManager.flush();
+
+        customerRepository.adjustOrderSummary(customer.getId(), -1, new BigDecimal("-50.00"), Instant.now());
+        entityManager.clear();
+
+        Customer updated = entityManager.find(Customer.class, customer.getId());
+        assertEquals(1, updated.getOrderCount());
+        assertEquals(older.getOrderDate(), updated.getLastOrderDate());
+    }
+
+    @Test
+    @DisplayName("Testa que o ranking traz só clientes com pedidos, do maior para o menor valor")
+    void rankingPorValor() {
+        Customer first = persistCustomer("um@gmail.com", "111.111.111-11");
+        Customer second = persistCustomer("dois@gmail.com", "222.222.222-22");
+        persistCustomer("tres@gmail.com", "333.333.333-33");
+        entityManager.flush();
+        customerRepository.addToOrderSummary(second.getId(), 1, new BigDecimal("10.00"), null, Instant.now());
+        customerRepository.addToOrderSummary(first.getId(), 1, new BigDecimal("90.00"), null, Instant.now());
+
+        List<CustomerSummary> top = customerRepository.findTopByLifetimeValue(PageRequest.of(0, 10));
+
+        assertEquals(List.of(first.getId(), second.getId()), top.stream().map(CustomerSummary::id).toList());
+    }
+
+    private Customer persistCustomer(String email, String documentNumber) {
+        Customer customer = CustomerMockUtils.criarCustomer();
+        customer.setId(null);
+        customer.setEmail(email);
+        customer.setDocumentNumber(documentNumber);
+        return entityManager.persist(customer);
+    }
+
+    private Order persistOrder(Customer customer, int items) {
+        Order order = new Order(customer, LocalDateTime.of(2024, 1, 1, 10, 0), new BigDecimal("100.00"), OrderStatus.NEW);
+        order.setOrderItems(new ArrayList<>());
+        for (int i = 0; i < items; i++) {
+            order.getOrderItems().add(new OrderItem(order, 1, 1000));
+        }
+        return entityManager.persistAndFlush(order);
+    }
+}
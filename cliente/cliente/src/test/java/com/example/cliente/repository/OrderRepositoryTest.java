@@ -0,0 +1,199 @@
+package com.example.cliente.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.cliente.analytics.OrderRow;
+import com.example.cliente.dto.OrderDateCursor;
+import com.example.cliente.dto.OrderPatch;
+import com.example.cliente.dto.OrderQuery;
+import com.example.cliente.dto.OrderResponse;
+import com.example.cliente.dto.OrderStatusTransition;
+import com.example.cliente.model.Customer;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderItem;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.stats.OrderStatsRow;
+import com.example.cliente.util.CustomerMockUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Customer customer;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        customer = CustomerMockUtils.criarCustomer();
+        customer.setId(null);
+        entityManager.persist(customer);
+        order = entityManager.persistFlushFind(
+                new Order(customer, LocalDateTime.of(2024, 1, 1, 10, 0), new BigDecimal("100.00"), OrderStatus.NEW));
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Testa que o patch altera só os campos enviados e avança a versão")
+    void patchAlteraCamposEnviados() {
+        int updated = orderRepository.patch(order.getId(), 0L, new OrderPatch(null, null, OrderStatus.PAID));
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        Order patched = entityManager.find(Order.class, order.getId());
+        assertEquals(OrderStatus.PAID, patched.getStatus());
+        assertEquals(0, new BigDecimal("100.00").compareTo(patched.getTotalValue()));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), patched.getOrderDate());
+        assertEquals(1L, patched.getVersion());
+        assertNotNull(patched.getUpdatedAt());
+    }
+
+    @Test
+    @DisplayName("Testa a verificação de itens usada pelo PATCH do total")
+    void verificaSePedidoTemItens() {
+        assertFalse(orderRepository.hasItems(order.getId()));
+
+        entityManager.persistAndFlush(new OrderItem(entityManager.find(Order.class, order.getId()), 2, 1025L));
+
+        assertTrue(orderRepository.hasItems(order.getId()));
+    }
+
+    @Test
+    @DisplayName("Testa que o patch com versão desatualizada não altera o pedido")
+    void patchComVersaoDesatualizada() {
+        orderRepository.patch(order.getId(), 0L, new OrderPatch(null, null, OrderStatus.PAID));
+
+        int updated = orderRepository.patch(order.getId(), 0L, new OrderPatch(null, null, OrderStatus.SHIPPED));
+        entityManager.clear();
+
+        assertEquals(0, updated);
+        assertEquals(OrderStatus.PAID, entityManager.find(Order.class, order.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Testa que a transição de status altera só os pedidos no status de origem e avança a versão")
+    void transicaoDeStatus() {
+        Order shipped = entityManager.persistFlushFind(new Order(entityManager.find(Customer.class, customer.getId()),
+                LocalDateTime.of(2024, 1, 2, 10, 0), new BigDecimal("50.00"), OrderStatus.SHIPPED));
+        entityManager.clear();
+        OrderStatusTransition transition = new OrderStatusTransition(OrderStatus.NEW, OrderStatus.SHIPPED, null, null, null, null);
+
+        int updated = orderRepository.transitionStatus(transition, List.of(order.getId(), shipped.getId()));
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        Order moved = entityManager.find(Order.class, order.getId());
+        assertEquals(OrderStatus.SHIPPED, moved.getStatus());
+        assertEquals(1L, moved.getVersion());
+        assertEquals(0L, entityManager.find(Order.class, shipped.getId()).getVersion());
+    }
+
+    @Test
+    @DisplayName("Testa que a transição de status por filtro respeita o intervalo de datas")
+    void transicaoDeStatusPorFiltro() {
+        OrderStatusTransition transition = new OrderStatusTransition(OrderStatus.NEW, OrderStatus.SHIPPED, null,
+                customer.getId(), null, LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        assertEquals(0, orderRepository.transitionStatus(transition, null));
+    }
+
+    @Test
+    @DisplayName("Testa que a leitura incremental do motor de análise traz só os pedidos gravados desde o instante informado")
+    void leituraIncrementalPorUpdatedAt() {
+        Instant since = Instant.now();
+        orderRepository.patch(order.getId(), 0L, new OrderPatch(null, new BigDecimal("80.00"), null));
+        Customer managed = entityManager.find(Customer.class, customer.getId());
+        Order untouched = entityManager.persistFlushFind(
+                new Order(managed, LocalDateTime.of(2024, 1, 2, 10, 0), new BigDecimal("5.00"), OrderStatus.NEW));
+        entityManager.getEntityManager().createQuery("UPDATE Order o SET o.updatedAt = :before WHERE o.id = :id")
+                .setParameter("before", since.minusSeconds(60))
+                .setParameter("id", untouched.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        List<OrderRow> rows;
+        try (Stream<OrderRow> stream = orderRepository.streamAnalyticsRowsUpdatedSince(since)) {
+            rows = stream.toList();
+        }
+
+        assertEquals(List.of(new OrderRow(order.getId(), customer.getId(), LocalDateTime.of(2024, 1, 1, 10, 0),
+                new BigDecimal("80.00"), OrderStatus.NEW)), rows);
+    }
+
+    @Test
+    @DisplayName("Testa que a soma por hora agrupa os pedidos do status pela hora da data do pedido")
+    void somaPorHoraDoStatus() {
+        Customer managed = entityManager.find(Customer.class, customer.getId());
+        entityManager.persist(new Order(managed, LocalDateTime.of(2024, 1, 1, 10, 45), new BigDecimal("20.00"), OrderStatus.NEW));
+        entityManager.persist(new Order(managed, LocalDateTime.of(2024, 1, 1, 11, 5), new BigDecimal("5.00"), OrderStatus.NEW));
+        entityManager.persist(new Order(managed, LocalDateTime.of(2024, 1, 1, 10, 30), new BigDecimal("9.00"), OrderStatus.PAID));
+        entityManager.flush();
+
+        List<OrderStatsRow> rows = orderRepository.sumByHourForStatus(OrderStatus.NEW,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 2, 0, 0));
+
+        assertEquals(2, rows.size());
+        OrderStatsRow tenOClock = rows.stream()
+                .filter(row -> row.bucketStart().equals(LocalDateTime.of(2024, 1, 1, 10, 0)))
+                .findFirst().orElseThrow();
+        assertEquals(2L, tenOClock.orderCount());
+        assertEquals(0, new BigDecimal("120.00").compareTo(tenOClock.totalValue()));
+        assertEquals(OrderStatus.NEW, tenOClock.status());
+    }
+
+    @Test
+    @DisplayName("Testa que os candidatos da transição são somados com a mesma seleção do UPDATE")
+    void somaCandidatosDaTransicao() {
+        entityManager.persist(new Order(entityManager.find(Customer.class, customer.getId()),
+                LocalDateTime.of(2024, 1, 1, 10, 15), new BigDecimal("30.00"), OrderStatus.PAID));
+        entityManager.flush();
+        OrderStatusTransition transition = new OrderStatusTransition(OrderStatus.NEW, OrderStatus.PAID,
+                null, customer.getId(), null, null);
+
+        List<OrderStatsRow> rows = orderRepository.sumTransitionCandidates(transition, null);
+
+        assertEquals(1, rows.size());
+        assertEquals(1L, rows.get(0).orderCount());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), rows.get(0).bucketStart());
+        assertEquals(1, orderRepository.transitionStatus(transition, null));
+    }
+
+    @Test
+    @DisplayName("Testa a paginação por status e data, desempatando pedidos da mesma data pelo ID")
+    void paginaPorStatusEData() {
+        Customer managed = entityManager.find(Customer.class, customer.getId());
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Order second = entityManager.persist(new Order(managed, date, BigDecimal.TEN, OrderStatus.NEW));
+        Order third = entityManager.persist(new Order(managed, date.plusDays(1), BigDecimal.TEN, OrderStatus.NEW));
+        entityManager.persist(new Order(managed, date, BigDecimal.TEN, OrderStatus.PAID));
+        entityManager.flush();
+        entityManager.clear();
+        OrderQuery query = new OrderQuery(OrderStatus.NEW, null, null, null);
+
+        List<OrderResponse> first = orderRepository.findPage(query, null, 2);
+        OrderResponse last = first.get(1);
+        List<OrderResponse> next = orderRepository.findPage(query, new OrderDateCursor(last.orderDate(), last.id()), 2);
+
+        assertEquals(List.of(order.getId(), second.getId()), first.stream().map(OrderResponse::id).toList());
+        assertEquals(List.of(third.getId()), next.stream().map(OrderResponse::id).toList());
+        assertEquals(OrderStatus.NEW, next.get(0).status());
+    }
+}
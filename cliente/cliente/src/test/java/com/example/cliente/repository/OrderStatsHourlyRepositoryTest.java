@@ -0,0 +1,110 @@
+package com.example.cliente.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import com.example.cliente.model.OrderStatsHourly;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.stats.OrderStatsDelta;
+import com.example.cliente.stats.OrderStatsRollup;
+import com.example.cliente.stats.OrderStatsRow;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Um dos testes confirma a transação para conferir que ela não ficou marcada para
+ * rollback: cada teste usa horas diferentes.
+ */
+@DataJpaTest
+@Import(OrderStatsRollup.class)
+class OrderStatsHourlyRepositoryTest {
+
+    @Autowired
+    private OrderStatsHourlyRepository statsRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderStatsRollup statsRollup;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Testa que o rollup cria a linha da hora que ainda não existe e soma nas seguintes")
+    void rollupCriaESomaNaMesmaLinha() {
+        LocalDateTime hour = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+        statsRollup.apply(new OrderStatsDelta().add(row(hour, 2, "30.00"), OrderStatus.NEW, 1));
+        statsRollup.apply(new OrderStatsDelta().add(row(hour, 1, "10.00"), OrderStatus.NEW, -1));
+        entityManager.clear();
+
+        List<OrderStatsHourly> rows = statsRepository.findRange(hour, hour.plusHours(1));
+        assertEquals(1, rows.size());
+        assertEquals(OrderStatus.NEW, rows.get(0).getStatus());
+        assertEquals(1L, rows.get(0).getOrderCount());
+        assertEquals(0, new BigDecimal("20.00").compareTo(rows.get(0).getTotalValue()));
+    }
+
+    @Test
+    @DisplayName("Testa que a linha criada por outra transação no meio do caminho recebe a soma sem desfazer a transação")
+    void rollupComLinhaCriadaConcorrentemente() {
+        LocalDateTime hour = LocalDateTime.of(2030, 3, 1, 10, 0);
+        statsRollup.apply(new OrderStatsDelta().add(row(hour, 1, "10.00"), OrderStatus.NEW, 1));
+
+        // O primeiro UPDATE não acha a linha, que "aparece" antes do INSERT: chave duplicada
+        OrderStatsHourlyRepository racing = mock(OrderStatsHourlyRepository.class, delegatesTo(statsRepository));
+        doReturn(0).doAnswer(delegatesTo(statsRepository)).when(racing)
+                .increment(eq(hour), eq('N'), anyLong(), any(BigDecimal.class));
+        new OrderStatsRollup(racing, customerRepository, entityManager.getEntityManager(), event -> { }, jdbcTemplate)
+                .apply(new OrderStatsDelta().add(row(hour, 2, "15.00"), OrderStatus.NEW, 1));
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        List<OrderStatsHourly> rows = statsRepository.findRange(hour, hour.plusHours(1));
+        assertEquals(1, rows.size());
+        assertEquals(3L, rows.get(0).getOrderCount());
+        assertEquals(0, new BigDecimal("25.00").compareTo(rows.get(0).getTotalValue()));
+    }
+
+    @Test
+    @DisplayName("Testa que o intervalo devolve as horas ordenadas e exclui o fim")
+    void intervaloOrdenadoComFimExclusivo() {
+        LocalDateTime hour = LocalDateTime.of(2030, 2, 1, 10, 0);
+        statsRollup.apply(new OrderStatsDelta()
+                .add(row(hour.plusHours(1), 1, "5.00"), OrderStatus.PAID, 1)
+                .add(row(hour, 1, "7.00"), OrderStatus.PAID, 1)
+                .add(row(hour.plusHours(2), 1, "9.00"), OrderStatus.PAID, 1));
+        entityManager.clear();
+
+        List<OrderStatsHourly> rows = statsRepository.findRange(hour, hour.plusHours(2));
+
+        assertEquals(List.of(hour, hour.plusHours(1)), rows.stream().map(OrderStatsHourly::getBucketStart).toList());
+    }
+
+    private static OrderStatsRow row(LocalDateTime hour, long count, String value) {
+        return new OrderStatsRow(hour.getYear(), hour.getMonthValue(), hour.getDayOfMonth(), hour.getHour(),
+                OrderStatus.NEW, count, new BigDecimal(value));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.cliente.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerJsonCacheTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @InjectMocks
+    private CustomerJsonCache customerJsonCache;
+
+    @Test
+    @DisplayName("Testa a leitura do cabeçalho Accept-Encoding")
+    void aceitaGzip() {
+        assertTrue(CustomerJsonCache.acceptsGzip("gzip"));
+        assertTrue(CustomerJsonCache.acceptsGzip("deflate, GZIP;q=0.5, br"));
+        assertTrue(CustomerJsonCache.acceptsGzip("*"));
+        assertFalse(CustomerJsonCache.acceptsGzip(null));
+        assertFalse(CustomerJsonCache.acceptsGzip("br, deflate"));
+        assertFalse(CustomerJsonCache.acceptsGzip("gzip;q=0"));
+        assertFalse(CustomerJsonCache.acceptsGzip("gzip; q=0.0, identity"));
+        assertFalse(CustomerJsonCache.acceptsGzip("*;q=1, gzip;q=0"));
+        assertFalse(CustomerJsonCache.acceptsGzip("gzip;q=0, *"));
+        assertTrue(CustomerJsonCache.acceptsGzip("*;q=0, gzip"));
+        assertFalse(CustomerJsonCache.acceptsGzip("*;q=0"));
+    }
+
+    @Test
+    @DisplayName("Testa que o gzip é gerado uma vez por entrada e só para JSON grande o bastante")
+    void gzipPorEntrada() throws IOException {
+        byte[] json = ("{\"name\":\"" + "Nome Teste da Silva ".repeat(30) + "\"}").getBytes(StandardCharsets.UTF_8);
+        CustomerJsonCache.Entry entry = new CustomerJsonCache.Entry(1L, null, json);
+
+        byte[] gzip = customerJsonCache.gzip(entry);
+
+        assertNotNull(gzip);
+        assertTrue(gzip.length < json.length);
+        assertSame(gzip, customerJsonCache.gzip(entry));
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+
+        CustomerJsonCache.Entry small = new CustomerJsonCache.Entry(1L, null, "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        assertNull(customerJsonCache.gzip(small));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.cliente.service;
+
+import com.example.cliente.event.CustomerSnapshot;
+import com.example.cliente.model.Customer;
+import com.example.cliente.repository.CustomerRepository;
+import com.example.cliente.util.CustomerMockUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+@SpringBootTest
+class CustomerServiceCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerJsonCache customerJsonCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache("customers").clear();
+        cacheManager.getCache("customerJson").clear();
+    }
+
+    @Test
+    @DisplayName("Testa que a segunda busca por ID é servida pelo cache")
+    void buscaPorIdUsaCache() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(CustomerMockUtils.criarCustomer()));
+
+        customerService.findCustomerById(1L);
+        Customer customer = customerService.findCustomerById(1L);
+
+        assertEquals("Nome Teste da Silva", customer.getName());
+        verify(customerRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Testa que o JSON do cliente é serializado uma vez e reaproveitado")
+    void jsonDoClienteUsaCache() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(CustomerMockUtils.criarCustomerResponse()));
+
+        CustomerJsonCache.Entry first = customerJsonCache.find(1L);
+        CustomerJsonCache.Entry second = customerJsonCache.find(1L);
+
+        assertSame(first, second);
+        assertTrue(new String(first.json(), StandardCharsets.UTF_8).contains("\"name\":\"Nome Teste da Silva\""));
+        verify(customerRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Testa que a atualização de um cliente invalida o cache")
+    void atualizacaoInvalidaCache() {
+        Customer updated = CustomerMockUtils.criarCustomer();
+        updated.setName("Nome Atualizado");
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(CustomerMockUtils.criarCustomer()));
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(updated);
+
+        customerService.findCustomerById(1L);
+        customerJsonCache.find(1L);
+        customerService.updateCustomer(1L, updated);
+
+        assertNull(cacheManager.getCache("customers").get(1L));
+        assertNull(cacheManager.getCache("customerJson").get(1L));
+    }
+
+    @Test
+    @DisplayName("Testa que a exclusão de um cliente invalida o cache do cliente e o de pedidos")
+    void exclusaoInvalidaCache() {
+        Customer customer = CustomerMockUtils.criarCustomer();
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(customerRepository.findSnapshotById(1L)).thenReturn(Optional.of(CustomerSnapshot.of(customer)));
+        cacheManager.getCache("orders").put(10L, Optional.empty());
+
+        customerService.findCustomerById(1L);
+        customerJsonCache.find(1L);
+        customerService.deleteCustomer(1L);
+
+        assertNull(cacheManager.getCache("customers").get(1L));
+        assertNull(cacheManager.getCache("customerJson").get(1L));
+        assertNull(cacheManager.getCache("orders").get(10L));
+    }
+}
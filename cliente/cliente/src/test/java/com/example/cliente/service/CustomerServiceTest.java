@@ -1,23 +1,67 @@
 package com.example.cliente.service;
 
+import com.example.cliente.dto.CursorPage;
+import com.example.cliente.dto.CustomerResponse;
+import com.example.cliente.dto.CustomerSearchHit;
+import com.example.cliente.dto.CustomerBatchResult;
+import com.example.cliente.dto.CustomerDeletionResult;
+import com.example.cliente.dto.CustomerRanking;
+import com.example.cliente.event.CustomerChangedEvent;
+import com.example.cliente.event.CustomerSnapshot;
+import com.example.cliente.event.CustomerSummary;
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.exception.ConflictException;
 import com.example.cliente.exception.NotFoundException;
+import com.example.cliente.index.CpfIndex;
+import com.example.cliente.index.CustomerLeaderboard;
+import com.example.cliente.index.CustomerSearchIndex;
+import com.example.cliente.index.EmailFilter;
 import com.example.cliente.model.Customer;
+import com.example.cliente.model.OrderStatus;
 import com.example.cliente.repository.CustomerRepository;
+import com.example.cliente.repository.OrderRepository;
+import com.example.cliente.stats.OrderStatsDelta;
+import com.example.cliente.stats.OrderStatsRollup;
+import com.example.cliente.stats.OrderStatsRow;
 import com.example.cliente.util.CustomerMockUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 class CustomerServiceTest {
@@ -28,12 +72,42 @@ class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private CpfIndex cpfIndex;
+
+    @Mock
+    private EmailFilter emailFilter;
+
+    @Mock
+    private CustomerSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderStatsRollup statsRollup;
+
+    @Mock
+    private CustomerLeaderboard leaderboard;
+
     @Test
     @DisplayName("Testa a criação de um cliente com sucesso")
     void criarClienteSucesso() {
         Customer customer = CustomerMockUtils.criarCustomer();
 
-        when(customerRepository.save(any())).thenReturn(CustomerMockUtils.criarCustomerResponse());
+        when(customerRepository.saveAndFlush(any())).thenReturn(CustomerMockUtils.criarCustomerResponse());
 
         Customer newCustomer = customerService.registerCustomer(customer);
 
@@ -43,8 +117,115 @@ class CustomerServiceTest {
         assertEquals("email@gmail.com", newCustomer.getEmail());
         assertEquals("(99) 9999-9999", newCustomer.getPhone());
         assertEquals("999.999.999-99", newCustomer.getDocumentNumber());
+        verify(eventPublisher).publishEvent(any(CustomerChangedEvent.class));
     }
     
+    @Test
+    @DisplayName("Testa o cadastro em lote reportando inválidos e conflitos individualmente")
+    void cadastrarClientesEmLote() {
+        Customer valido = CustomerMockUtils.criarCustomer();
+        valido.setId(null);
+
+        Customer invalido = CustomerMockUtils.criarCustomer();
+        invalido.setEmail("email_invalido");
+        invalido.setDocumentNumber("111.111.111-11");
+
+        Customer cpfExistente = CustomerMockUtils.criarCustomer();
+        cpfExistente.setEmail("outro@gmail.com");
+        cpfExistente.setDocumentNumber("222.222.222-22");
+
+        Customer emailRepetidoNoLote = CustomerMockUtils.criarCustomer();
+        emailRepetidoNoLote.setDocumentNumber("333.333.333-33");
+
+        when(cpfIndex.find(anyString())).thenAnswer(invocation ->
+                "222.222.222-22".equals(invocation.getArgument(0)) ? OptionalLong.of(5L) : OptionalLong.empty());
+        when(customerRepository.findExistingDocumentNumbers(List.of("222.222.222-22"))).thenReturn(List.of("222.222.222-22"));
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            customers.forEach(customer -> customer.setId(10L));
+            return customers;
+        });
+
+        List<CustomerBatchResult> results = customerService.registerCustomers(
+                List.of(valido, invalido, cpfExistente, emailRepetidoNoLote));
+
+        assertEquals(4, results.size());
+        assertEquals(CustomerBatchResult.Status.CREATED, results.get(0).status());
+        assertEquals(10L, results.get(0).id());
+        assertNotNull(valido.getRegistrationDate());
+        assertEquals(CustomerBatchResult.Status.INVALID, results.get(1).status());
+        assertEquals(List.of("O e-mail deve ser um e-mail válido!"), results.get(1).errors());
+        assertEquals(CustomerBatchResult.Status.CONFLICT, results.get(2).status());
+        assertEquals(List.of("Já existe um cliente com o CPF: 222.222.222-22"), results.get(2).errors());
+        assertEquals(CustomerBatchResult.Status.CONFLICT, results.get(3).status());
+        assertEquals(List.of("Já existe um cliente com o e-mail: email@gmail.com"), results.get(3).errors());
+        verify(customerRepository).saveAll(List.of(valido));
+        verify(customerRepository, never()).findExistingEmails(anyList());
+        verify(customerRepository).flush();
+    }
+
+    @Test
+    @DisplayName("Testa que um duplicado gravado concorrentemente vira conflito sem desfazer o resto do lote")
+    void cadastrarClientesEmLoteComDuplicadoConcorrente() {
+        Customer novo = CustomerMockUtils.criarCustomer();
+        novo.setId(null);
+
+        Customer concorrente = CustomerMockUtils.criarCustomer();
+        concorrente.setId(null);
+        concorrente.setEmail("outro@gmail.com");
+        concorrente.setDocumentNumber("222.222.222-22");
+
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            customers.forEach(customer -> customer.setId(10L));
+            return customers;
+        });
+        doThrow(new DataIntegrityViolationException("duplicate")).when(customerRepository).flush();
+        when(customerRepository.saveAndFlush(novo)).thenAnswer(invocation -> {
+            novo.setId(11L);
+            return novo;
+        });
+        when(customerRepository.saveAndFlush(concorrente)).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        List<CustomerBatchResult> results = customerService.registerCustomers(List.of(novo, concorrente));
+
+        assertEquals(CustomerBatchResult.Status.CREATED, results.get(0).status());
+        assertEquals(11L, results.get(0).id());
+        assertEquals(CustomerBatchResult.Status.CONFLICT, results.get(1).status());
+        assertEquals(List.of("Já existe um cliente com este CPF ou e-mail"), results.get(1).errors());
+        verify(eventPublisher, times(1)).publishEvent(any(CustomerChangedEvent.class));
+    }
+    
+    @Test
+    @DisplayName("Testa que um e-mail novo não consulta o banco e um CPF já cadastrado retorna conflito")
+    void criarClienteComCpfDuplicado() {
+        Customer customer = CustomerMockUtils.criarCustomer();
+
+        when(cpfIndex.find("999.999.999-99")).thenReturn(OptionalLong.of(7L));
+        when(customerRepository.existsByDocumentNumber("999.999.999-99")).thenReturn(true);
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> customerService.registerCustomer(customer));
+
+        assertEquals("Já existe um cliente com o CPF: 999.999.999-99", exception.getMessage());
+        verify(customerRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Testa que um possível acerto do filtro de e-mail é confirmado no banco")
+    void criarClienteComEmailDuplicado() {
+        Customer customer = CustomerMockUtils.criarCustomer();
+
+        when(emailFilter.mightContain("email@gmail.com")).thenReturn(true);
+        when(customerRepository.existsByEmail("email@gmail.com")).thenReturn(true);
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> customerService.registerCustomer(customer));
+
+        assertEquals("Já existe um cliente com o e-mail: email@gmail.com", exception.getMessage());
+        verify(customerRepository, never()).existsByDocumentNumber(anyString());
+    }
+
     @Test
     @DisplayName("Testa a atualização de um cliente com sucesso")
     void atualizarClienteSucesso() {
@@ -56,7 +237,9 @@ class CustomerServiceTest {
     updatedCustomer.setEmail("email.atualizado@gmail.com");
 
     when(customerRepository.findById(1L)).thenReturn(Optional.of(existingCustomer));
-    when(customerRepository.save(any(Customer.class))).thenReturn(updatedCustomer);
+    when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(updatedCustomer);
+    when(emailFilter.mightContain("email.atualizado@gmail.com")).thenReturn(true);
+    when(customerRepository.existsByEmailAndIdNot("email.atualizado@gmail.com", 1L)).thenReturn(false);
 
     Customer result = customerService.updateCustomer(1L, updatedCustomer);
 
@@ -115,8 +298,41 @@ class CustomerServiceTest {
     }
     
     @Test
-    @DisplayName("Testa a busca de todos os clientes com sucesso")
-    void buscarTodosClientesSucesso() {
+    @DisplayName("Testa a busca do ID de um cliente pelo CPF usando o índice")
+    void buscarIdClientePorCpf() {
+        when(cpfIndex.find("999.999.999-99")).thenReturn(OptionalLong.of(1L));
+
+        assertEquals(1L, customerService.findCustomerIdByDocumentNumber("999.999.999-99"));
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Testa a busca pelo CPF de um cliente inexistente ou com CPF inválido")
+    void buscarIdClientePorCpfInexistenteOuInvalido() {
+        when(cpfIndex.find("111.111.111-11")).thenReturn(OptionalLong.empty());
+
+        NotFoundException notFound = assertThrows(NotFoundException.class,
+                () -> customerService.findCustomerIdByDocumentNumber("111.111.111-11"));
+        assertEquals("Cliente não encontrado com o CPF: 111.111.111-11", notFound.getMessage());
+
+        assertThrows(BadRequestException.class, () -> customerService.findCustomerIdByDocumentNumber("123"));
+    }
+
+    @Test
+    @DisplayName("Testa que a busca por nome/e-mail usa o índice e rejeita termos curtos")
+    void buscarClientesPorTexto() {
+        List<CustomerSearchHit> hits = List.of(new CustomerSearchHit(1L, "Nome Teste da Silva", "email@gmail.com"));
+        when(searchIndex.search("nome", 10)).thenReturn(hits);
+
+        assertEquals(hits, customerService.searchCustomers("nome", 10));
+        assertThrows(BadRequestException.class, () -> customerService.searchCustomers(" n ", 10));
+        assertThrows(BadRequestException.class, () -> customerService.searchCustomers(null, 10));
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Testa a busca paginada de clientes com sucesso")
+    void buscarClientesPaginadosSucesso() {
         Customer customer1 = CustomerMockUtils.criarCustomer();
         customer1.setId(1L);
 
@@ -124,40 +340,127 @@ class CustomerServiceTest {
         customer2.setId(2L);
         customer2.setName("Nome Teste 2");
 
-        List<Customer> customerList = Arrays.asList(customer1, customer2);
+        List<CustomerResponse> customerList = Arrays.asList(
+                CustomerResponse.from(customer1), CustomerResponse.from(customer2));
 
-        when(customerRepository.findAll()).thenReturn(customerList);
+        when(customerRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(customerList);
 
-        List<Customer> foundCustomers = customerService.findAllCustomers();
+        CursorPage<CustomerResponse> page = customerService.findCustomersAfter(null, 10);
 
-        assertNotNull(foundCustomers);
-        assertEquals(2, foundCustomers.size());
-        assertEquals(1L, foundCustomers.get(0).getId());
-        assertEquals("Nome Teste da Silva", foundCustomers.get(0).getName());
-        assertEquals(2L, foundCustomers.get(1).getId());
-        assertEquals("Nome Teste 2", foundCustomers.get(1).getName());
+        assertNotNull(page);
+        assertEquals(2, page.items().size());
+        assertEquals(1L, page.items().get(0).id());
+        assertEquals("Nome Teste da Silva", page.items().get(0).name());
+        assertEquals(2L, page.items().get(1).id());
+        assertEquals("Nome Teste 2", page.items().get(1).name());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Testa que a busca paginada retorna o cursor da próxima página e respeita o limite máximo")
+    void buscarClientesPaginadosComProximaPagina() {
+        Customer customer1 = CustomerMockUtils.criarCustomer();
+        customer1.setId(11L);
+
+        Customer customer2 = CustomerMockUtils.criarCustomer();
+        customer2.setId(12L);
+
+        when(customerRepository.findPageAfter(eq(10L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(CustomerResponse.from(customer1), CustomerResponse.from(customer2)));
+
+        CursorPage<CustomerResponse> page = customerService.findCustomersAfter(10L, 1);
+
+        assertEquals(1, page.items().size());
+        assertEquals("11", page.nextCursor());
+
+        customerService.findCustomersAfter(10L, 100_000);
+
+        verify(customerRepository).findPageAfter(10L, PageRequest.of(0, CursorPage.MAX_LIMIT + 1));
     }
     
+    @Test
+    @DisplayName("Testa a exportação de clientes em NDJSON, um cliente por linha")
+    void exportarClientesNdjson() throws Exception {
+        Customer customer1 = CustomerMockUtils.criarCustomer();
+        Customer customer2 = CustomerMockUtils.criarCustomer();
+        customer2.setId(2L);
+
+        when(customerRepository.streamAllOrderedById())
+                .thenReturn(Stream.of(CustomerResponse.from(customer1), CustomerResponse.from(customer2)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exported = customerService.exportCustomers(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+        assertFalse(objectMapper.readTree(lines[0]).has("orders"));
+    }
+
     @Test
     @DisplayName("Testa a deleção de um cliente com sucesso")
     void deletarClienteSucesso() {
         Customer customer = CustomerMockUtils.criarCustomer();
         customer.setId(1L);
         
-        when(customerRepository.existsById(anyLong())).thenReturn(true);
-        doNothing().when(customerRepository).deleteById(anyLong());
+        when(customerRepository.findSnapshotById(1L)).thenReturn(Optional.of(CustomerSnapshot.of(customer)));
+        when(orderRepository.sumByHourForCustomer(1L)).thenReturn(List.of(
+                new OrderStatsRow(2024, 5, 10, 14, OrderStatus.NEW, 2L, new BigDecimal("20.00")),
+                new OrderStatsRow(2024, 5, 10, 15, OrderStatus.PAID, 1L, new BigDecimal("7.50"))));
+        when(orderRepository.deleteItemsInBulkByCustomerId(1L)).thenReturn(6);
+        when(orderRepository.deleteInBulkByCustomerId(1L)).thenReturn(3);
+        when(customerRepository.deleteInBulkById(1L)).thenReturn(1);
 
-        assertDoesNotThrow(() -> {
-            customerService.deleteCustomer(1L);
-        });
+        CustomerDeletionResult result = customerService.deleteCustomer(1L);
+
+        assertEquals(new CustomerDeletionResult(1L, 3, 6), result);
+        InOrder inOrder = inOrder(orderRepository, customerRepository);
+        inOrder.verify(orderRepository).deleteItemsInBulkByCustomerId(1L);
+        inOrder.verify(orderRepository).deleteInBulkByCustomerId(1L);
+        inOrder.verify(customerRepository).deleteInBulkById(1L);
+        verify(customerRepository, never()).findById(anyLong());
+        verify(eventPublisher).publishEvent(CustomerChangedEvent.deleted(CustomerSnapshot.of(customer)));
+
+        ArgumentCaptor<OrderStatsDelta> delta = ArgumentCaptor.forClass(OrderStatsDelta.class);
+        verify(statsRollup).apply(delta.capture());
+        Map<OrderStatsDelta.Key, OrderStatsDelta.Change> changes = new LinkedHashMap<>();
+        delta.getValue().forEach(changes::put);
+        assertEquals(Map.of(
+                new OrderStatsDelta.Key(LocalDateTime.of(2024, 5, 10, 14, 0), OrderStatus.NEW), new OrderStatsDelta.Change(-2, new BigDecimal("-20.00")),
+                new OrderStatsDelta.Key(LocalDateTime.of(2024, 5, 10, 15, 0), OrderStatus.PAID), new OrderStatsDelta.Change(-1, new BigDecimal("-7.50"))),
+                changes);
+    }
+
+    @Test
+    @DisplayName("Testa que a deleção que apaga mais pedidos que os somados antes deve lançar ConflictException")
+    void deletarClienteComPedidoAntesDosDeletes() {
+        Customer customer = CustomerMockUtils.criarCustomer();
+        when(customerRepository.findSnapshotById(1L)).thenReturn(Optional.of(CustomerSnapshot.of(customer)));
+        when(orderRepository.sumByHourForCustomer(1L)).thenReturn(List.of());
+        when(orderRepository.deleteInBulkByCustomerId(1L)).thenReturn(1);
+
+        assertThrows(ConflictException.class, () -> customerService.deleteCustomer(1L));
+        verify(customerRepository, never()).deleteInBulkById(anyLong());
+        verifyNoInteractions(statsRollup, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Testa que um pedido criado durante a deleção do cliente deve lançar ConflictException")
+    void deletarClienteComPedidoConcorrente() {
+        Customer customer = CustomerMockUtils.criarCustomer();
+        when(customerRepository.findSnapshotById(1L)).thenReturn(Optional.of(CustomerSnapshot.of(customer)));
+        when(customerRepository.deleteInBulkById(1L)).thenThrow(new DataIntegrityViolationException("FK"));
 
-        verify(customerRepository, times(1)).deleteById(1L);
+        assertThrows(ConflictException.class, () -> customerService.deleteCustomer(1L));
+        verifyNoInteractions(eventPublisher);
     }
     
     @Test
     @DisplayName("Testa a deleção de um cliente inexistente deve lançar NotFoundException")
     void deletarClienteInexistente() {
-        when(customerRepository.existsById(anyLong())).thenReturn(false);
+        when(customerRepository.findSnapshotById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             customerService.deleteCustomer(1L);
@@ -166,4 +469,31 @@ class CustomerServiceTest {
         assertEquals("Cliente não encontrado com o ID: 1", exception.getMessage());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testa que o ranking por valor numera as posições e limita o tamanho à capacidade")
+    void rankingPorValor() {
+        when(leaderboard.capacity()).thenReturn(50);
+        when(leaderboard.top(50)).thenReturn(List.of(
+                new CustomerSummary(3L, 4, new BigDecimal("900.00"), LocalDateTime.of(2024, 5, 10, 10, 0), 7L),
+                new CustomerSummary(1L, 2, new BigDecimal("300.00"), LocalDateTime.of(2024, 5, 9, 8, 0), 3L)));
+
+        List<CustomerRanking> ranking = customerService.findTopCustomers("LTV", 500);
+
+        assertEquals(2, ranking.size());
+        assertEquals(1, ranking.get(0).rank());
+        assertEquals(3L, ranking.get(0).customerId());
+        assertEquals(2, ranking.get(1).rank());
+        assertEquals(new BigDecimal("300.00"), ranking.get(1).lifetimeValue());
+    }
+
+    @Test
+    @DisplayName("Testa que um critério de ranking desconhecido é rejeitado")
+    void rankingComCriterioInvalido() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> customerService.findTopCustomers("orders", 10));
+
+        assertTrue(exception.getMessage().contains("Valores aceitos: [ltv]"));
+        verifyNoInteractions(leaderboard);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.cliente.service;
+
+import com.example.cliente.exception.ServiceUnavailableException;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.util.OrderMockUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderIntake orderIntake;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+
+    @BeforeEach
+    void setUp() {
+        orderIntake = new OrderIntake(orderService);
+        ReflectionTestUtils.setField(orderIntake, "enabled", true);
+        // Janela longa para que os três pedidos caiam no mesmo lote
+        ReflectionTestUtils.setField(orderIntake, "windowMillis", 2_000L);
+        ReflectionTestUtils.setField(orderIntake, "maxBatchSize", 3);
+        orderIntake.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderIntake.stop();
+        callers.shutdownNow();
+    }
+
+    private static Order pedido(OrderStatus status) {
+        Order order = OrderMockUtils.criarOrder();
+        order.setId(null);
+        order.setStatus(status);
+        return order;
+    }
+
+    private List<Future<Order>> criarConcorrentes(Order... orders) {
+        List<Future<Order>> results = new ArrayList<>();
+        for (Order order : orders) {
+            results.add(callers.submit(() -> orderIntake.createOrder(order)));
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Testa que pedidos concorrentes são gravados em uma única transação, cada um com o seu ID")
+    void agrupaPedidosConcorrentes() throws Exception {
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            long id = 10;
+            for (Order order : orders) {
+                order.setId(id++);
+            }
+            return orders;
+        });
+
+        List<Future<Order>> results = criarConcorrentes(pedido(OrderStatus.NEW), pedido(OrderStatus.PAID), pedido(OrderStatus.SHIPPED));
+
+        List<Long> ids = new ArrayList<>();
+        for (Future<Order> result : results) {
+            ids.add(result.get().getId());
+        }
+        assertEquals(3, ids.stream().distinct().count());
+        verify(orderService, times(1)).createOrders(anyList());
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    @DisplayName("Testa que, se o lote falhar, cada pedido é regravado sozinho e só o inválido recebe o erro")
+    void lotesComFalhaSaoRegravadosIndividualmente() throws Exception {
+        Order valido1 = pedido(OrderStatus.NEW);
+        Order invalido = pedido(OrderStatus.PAID);
+        Order valido2 = pedido(OrderStatus.SHIPPED);
+
+        when(orderService.createOrders(anyList())).thenThrow(new DataIntegrityViolationException("FK"));
+        when(orderService.createOrder(any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if (order == invalido) {
+                throw new DataIntegrityViolationException("FK");
+            }
+            order.setId(1L);
+            return order;
+        });
+
+        List<Future<Order>> results = criarConcorrentes(valido1, invalido, valido2);
+
+        assertEquals(1L, results.get(0).get().getId());
+        Exception exception = assertThrows(Exception.class, () -> results.get(1).get());
+        assertInstanceOf(DataIntegrityViolationException.class, exception.getCause());
+        assertEquals(1L, results.get(2).get().getId());
+        verify(orderService, times(3)).createOrder(any());
+    }
+
+    @Test
+    @DisplayName("Testa que, parado, o pedido é gravado diretamente")
+    void paradoGravaDiretamente() {
+        orderIntake.stop();
+        Order order = pedido(OrderStatus.NEW);
+        when(orderService.createOrder(order)).thenReturn(order);
+
+        assertSame(order, orderIntake.createOrder(order));
+        verify(orderService, never()).createOrders(anyList());
+    }
+
+    @Test
+    @DisplayName("Testa que o chamador desiste com 503 se o lote não for confirmado a tempo")
+    void esperaLimitada() {
+        ReflectionTestUtils.setField(orderIntake, "timeoutMillis", 50L);
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> orderIntake.createOrder(pedido(OrderStatus.NEW)));
+
+        assertEquals("O pedido não foi confirmado a tempo e pode ter sido gravado; verifique antes de reenviar.",
+                exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Testa que um erro inesperado no lote falha os pedidos e desliga o group commit")
+    void erroNaThreadDesligaGroupCommit() {
+        ReflectionTestUtils.setField(orderIntake, "maxBatchSize", 1);
+        when(orderService.createOrders(anyList())).thenThrow(new OutOfMemoryError("teste"));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> orderIntake.createOrder(pedido(OrderStatus.NEW)));
+
+        assertInstanceOf(OutOfMemoryError.class, exception.getCause());
+        assertFalse(orderIntake.isRunning());
+        Order order = pedido(OrderStatus.PAID);
+        when(orderService.createOrder(order)).thenReturn(order);
+        assertSame(order, orderIntake.createOrder(order));
+    }
+}
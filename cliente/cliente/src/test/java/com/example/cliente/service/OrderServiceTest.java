@@ -1,25 +1,58 @@
 package com.example.cliente.service;
 
+import com.example.cliente.dto.CursorPage;
+import com.example.cliente.dto.OrderDateCursor;
+import com.example.cliente.dto.OrderPatch;
+import com.example.cliente.dto.OrderQuery;
+import com.example.cliente.dto.OrderResponse;
+import com.example.cliente.dto.OrderStatusTransition;
+import com.example.cliente.dto.OrderStatusTransitionResult;
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.exception.ConflictException;
 import com.example.cliente.exception.NotFoundException;
+import com.example.cliente.event.OrderDeletedEvent;
 import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.model.OrderItem;
+import com.example.cliente.repository.CustomerRepository;
 import com.example.cliente.repository.OrderRepository;
+import com.example.cliente.stats.OrderStatsDelta;
+import com.example.cliente.stats.OrderStatsRollup;
+import com.example.cliente.stats.OrderStatsRow;
+import com.example.cliente.stats.OrderStatsSnapshot;
+import com.example.cliente.util.CustomerMockUtils;
 import com.example.cliente.util.OrderMockUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Optional;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
@@ -30,6 +63,21 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private OrderStatsRollup statsRollup;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 5, 10, 14, 25);
+    private static final LocalDateTime ORDER_HOUR = LocalDateTime.of(2024, 5, 10, 14, 0);
+
     @Test
     @DisplayName("Testa a criação de um pedido com sucesso")
     void criarPedidoSucesso() {
@@ -42,9 +90,47 @@ class OrderServiceTest {
         assertNotNull(newOrder);
         assertEquals(1L, newOrder.getId());
         assertEquals(BigDecimal.valueOf(100.00), newOrder.getTotalValue());
-        assertEquals("NEW", newOrder.getStatus());
+        assertEquals(OrderStatus.NEW, newOrder.getStatus());
+    }
+
+    @Test
+    @DisplayName("Testa que a criação de um pedido soma o pedido ao agregado da sua hora e status")
+    void criarPedidoAtualizaAgregados() {
+        Order order = OrderMockUtils.criarOrder();
+        order.setOrderDate(ORDER_DATE);
+        when(orderRepository.save(order)).thenReturn(order);
+
+        orderService.createOrder(order);
+
+        assertEquals(Map.of(new OrderStatsDelta.Key(ORDER_HOUR, OrderStatus.NEW), new OrderStatsDelta.Change(1, BigDecimal.valueOf(100.00))),
+                appliedStats());
     }
     
+    @Test
+    @DisplayName("Testa que o total de um pedido com itens é calculado no servidor, ignorando o valor enviado")
+    void criarPedidoCalculaTotalDosItens() {
+        Order order = OrderMockUtils.criarOrder();
+        order.setOrderItems(List.of(new OrderItem(null, 3, 1999), new OrderItem(null, 1, 5)));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        Order newOrder = orderService.createOrder(order);
+
+        assertEquals(new BigDecimal("60.02"), newOrder.getTotalValue());
+        assertSame(order, newOrder.getOrderItems().get(0).getOrder());
+    }
+
+    @Test
+    @DisplayName("Testa que um item com quantidade zero é rejeitado antes de gravar o pedido")
+    void criarPedidoComQuantidadeInvalida() {
+        Order order = OrderMockUtils.criarOrder();
+        order.setOrderItems(List.of(new OrderItem(null, 1, 1000), new OrderItem(null, 0, 1000)));
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> orderService.createOrder(order));
+
+        assertTrue(exception.getMessage().contains("item 2"));
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Testa a criação de um pedido com dados inválidos")
     void testCreateOrderWithInvalidData() {
@@ -60,38 +146,128 @@ class OrderServiceTest {
     }
     
     @Test
-    @DisplayName("Testa a busca de todos os pedidos com sucesso")
-    void testGetAllOrdersSuccess() {
-        when(orderRepository.findAll()).thenReturn(Collections.singletonList(OrderMockUtils.criarOrderResponse()));
+    @DisplayName("Testa a busca paginada de pedidos com sucesso")
+    void testGetOrdersAfterSuccess() {
+        when(orderRepository.findPageAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(OrderResponse.from(OrderMockUtils.criarOrderResponse())));
 
-        List<Order> orders = orderService.getAllOrders();
+        CursorPage<OrderResponse> orders = orderService.getOrdersAfter(null, 10);
 
         assertNotNull(orders);
-        assertEquals(1, orders.size());
-        assertEquals(1L, orders.get(0).getId());
-        assertEquals(BigDecimal.valueOf(100.00), orders.get(0).getTotalValue());
-        assertEquals("NEW", orders.get(0).getStatus());
+        assertEquals(1, orders.items().size());
+        assertEquals(1L, orders.items().get(0).id());
+        assertEquals(BigDecimal.valueOf(100.00), orders.items().get(0).totalValue());
+        assertEquals(OrderStatus.NEW, orders.items().get(0).status());
+        assertNull(orders.nextCursor());
+    }
+    
+    @Test
+    @DisplayName("Testa que a busca por status devolve um cursor opaco com a data e o ID do último pedido")
+    void buscaPorStatusComCursor() {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+        OrderQuery query = new OrderQuery(OrderStatus.NEW, null, null, null);
+        when(orderRepository.findPage(query, null, 2)).thenReturn(List.of(
+                new OrderResponse(1L, 1L, date, BigDecimal.TEN, OrderStatus.NEW),
+                new OrderResponse(2L, 1L, date, BigDecimal.TEN, OrderStatus.NEW)));
+
+        CursorPage<OrderResponse> page = orderService.searchOrders(query, null, 1);
+
+        assertEquals(1, page.items().size());
+        assertEquals(new OrderDateCursor(date, 1L), OrderDateCursor.decode(page.nextCursor()));
+
+        orderService.searchOrders(query, page.nextCursor(), 1);
+        verify(orderRepository).findPage(query, new OrderDateCursor(date, 1L), 2);
+    }
+
+    @Test
+    @DisplayName("Testa que a busca só por período ou com cursor inválido deve lançar BadRequestException")
+    void buscaPorStatusInvalida() {
+        OrderQuery periodOnly = new OrderQuery(null, null, LocalDateTime.of(2024, 1, 1, 0, 0), null);
+        OrderQuery byStatus = new OrderQuery(OrderStatus.NEW, null, null, null);
+
+        assertThrows(BadRequestException.class, () -> orderService.searchOrders(periodOnly, null, 10));
+        assertThrows(BadRequestException.class, () -> orderService.searchOrders(byStatus, "xyz", 10));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Testa a exportação de pedidos em NDJSON, com o cliente referenciado apenas pelo ID")
+    void testExportOrdersNdjson() throws Exception {
+        Order order = OrderMockUtils.criarOrder();
+        order.setCustomer(CustomerMockUtils.criarCustomer());
+
+        when(orderRepository.streamAllOrderedById()).thenReturn(Stream.of(OrderResponse.from(order)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exported = orderService.exportOrders(output);
+
+        String ndjson = output.toString(StandardCharsets.UTF_8);
+        assertEquals(1, exported);
+        assertTrue(ndjson.endsWith("\n"));
+        assertEquals("NEW", objectMapper.readTree(ndjson).get("status").asText());
+        assertEquals(1L, objectMapper.readTree(ndjson).get("customerId").asLong());
+        assertFalse(objectMapper.readTree(ndjson).has("orderItems"));
     }
     
+    @Test
+    @DisplayName("Testa o histórico de pedidos do cliente busca os IDs da página e depois os pedidos com os itens")
+    void testGetCustomerOrdersEmDuasFases() {
+        Order order1 = OrderMockUtils.criarOrder();
+        order1.setId(4L);
+        order1.setOrderItems(List.of(new OrderItem(order1, 1, 1000)));
+        Order order2 = OrderMockUtils.criarOrder();
+        order2.setId(9L);
+        order2.setOrderItems(List.of());
+
+        when(orderRepository.findIdsByCustomerIdAfter(eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(4L, 9L, 12L));
+        when(orderRepository.findWithItemsByIdIn(List.of(4L, 9L))).thenReturn(List.of(order1, order2));
+
+        CursorPage<OrderResponse> orders = orderService.getCustomerOrders(1L, null, 2);
+
+        assertEquals(2, orders.items().size());
+        assertEquals(4L, orders.items().get(0).id());
+        assertEquals(1, orders.items().get(0).orderItems().size());
+        assertEquals("9", orders.nextCursor());
+        verify(orderRepository).findIdsByCustomerIdAfter(1L, 0L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    @DisplayName("Testa o histórico de pedidos vazio não executa a segunda consulta")
+    void testGetCustomerOrdersVazio() {
+        when(orderRepository.findIdsByCustomerIdAfter(eq(1L), eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        CursorPage<OrderResponse> orders = orderService.getCustomerOrders(1L, null, 10);
+
+        assertTrue(orders.items().isEmpty());
+        assertNull(orders.nextCursor());
+        verify(orderRepository, never()).findWithItemsByIdIn(any());
+    }
+
     @Test
     @DisplayName("Testa a busca de um pedido por ID com sucesso")
     void testGetOrderByIdSuccess() {
-        when(orderRepository.findById(anyLong())).thenReturn(Optional.of(OrderMockUtils.criarOrderResponse()));
+        Order order = OrderMockUtils.criarOrderResponse();
+        order.setOrderItems(List.of(new OrderItem(order, 2, 5000)));
 
-        Optional<Order> foundOrder = orderService.getOrderById(1L);
+        when(orderRepository.findWithItemsById(anyLong())).thenReturn(Optional.of(order));
+
+        Optional<OrderResponse> foundOrder = orderService.getOrderById(1L);
 
         assertTrue(foundOrder.isPresent());
-        assertEquals(1L, foundOrder.get().getId());
-        assertEquals(BigDecimal.valueOf(100.00), foundOrder.get().getTotalValue());
-        assertEquals("NEW", foundOrder.get().getStatus());
+        assertEquals(1L, foundOrder.get().id());
+        assertEquals(BigDecimal.valueOf(100.00), foundOrder.get().totalValue());
+        assertEquals(OrderStatus.NEW, foundOrder.get().status());
+        assertEquals(1, foundOrder.get().orderItems().size());
+        assertEquals(2, foundOrder.get().orderItems().get(0).quantity());
     }
     
     @Test
     @DisplayName("Testa a busca de um pedido inexistente por ID deve retornar Optional vazio")
     void testGetOrderByIdNotFound() {
-        when(orderRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(anyLong())).thenReturn(Optional.empty());
 
-        Optional<Order> foundOrder = orderService.getOrderById(1L);
+        Optional<OrderResponse> foundOrder = orderService.getOrderById(1L);
 
         assertFalse(foundOrder.isPresent());
     }
@@ -102,24 +278,66 @@ class OrderServiceTest {
         Order existingOrder = OrderMockUtils.criarOrder();
         existingOrder.setId(1L);
         Order updatedOrder = OrderMockUtils.criarOrder();
-        updatedOrder.setStatus("PAID");
+        updatedOrder.setStatus(OrderStatus.PAID);
         
-        when(orderRepository.existsById(1L)).thenReturn(true);
-    when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existingOrder));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Order result = orderService.updateOrder(1L, updatedOrder);
 
         assertNotNull(result);
-        assertEquals(1L, updatedOrder.getId());
-        assertEquals("PAID", updatedOrder.getStatus());
+        assertSame(existingOrder, result);
+        assertEquals(1L, result.getId());
+        assertEquals(OrderStatus.PAID, result.getStatus());
+    }
+
+    @Test
+    @DisplayName("Testa que a atualização move o pedido entre os agregados do status antigo e do novo")
+    void atualizarPedidoMoveAgregados() {
+        Order existingOrder = OrderMockUtils.criarOrder();
+        existingOrder.setOrderDate(ORDER_DATE);
+        Order updatedOrder = OrderMockUtils.criarOrder();
+        updatedOrder.setOrderDate(ORDER_DATE);
+        updatedOrder.setStatus(OrderStatus.PAID);
+        updatedOrder.setTotalValue(BigDecimal.valueOf(150.00));
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existingOrder));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.updateOrder(1L, updatedOrder);
+
+        assertEquals(Map.of(
+                new OrderStatsDelta.Key(ORDER_HOUR, OrderStatus.NEW), new OrderStatsDelta.Change(-1, BigDecimal.valueOf(-100.00)),
+                new OrderStatsDelta.Key(ORDER_HOUR, OrderStatus.PAID), new OrderStatsDelta.Change(1, BigDecimal.valueOf(150.00))),
+                appliedStats());
     }
     
+    @Test
+    @DisplayName("Testa que a atualização substitui os itens do pedido e marca o pedido como alterado")
+    void atualizarPedidoSubstituiItens() {
+        Order existingOrder = OrderMockUtils.criarOrder();
+        existingOrder.setOrderItems(new ArrayList<>(List.of(new OrderItem(existingOrder, 1, 1000))));
+        Order updatedOrder = OrderMockUtils.criarOrder();
+        updatedOrder.setOrderItems(List.of(new OrderItem(null, 2, 500)));
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existingOrder));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Order result = orderService.updateOrder(1L, updatedOrder);
+
+        assertEquals(1, result.getOrderItems().size());
+        assertEquals(2, result.getOrderItems().get(0).getQuantity());
+        assertSame(existingOrder, result.getOrderItems().get(0).getOrder());
+        assertEquals(new BigDecimal("10.00"), result.getTotalValue());
+        assertNotNull(result.getUpdatedAt());
+    }
+
     @Test
     @DisplayName("Testa a atualização de um pedido com dados inválidos")
     void testUpdateOrderWithInvalidData() {
         Order invalidOrder = new Order(); // Pedido com dados faltando
 
-        when(orderRepository.existsById(anyLong())).thenReturn(true);
+        when(orderRepository.findById(anyLong())).thenReturn(Optional.of(OrderMockUtils.criarOrder()));
         when(orderRepository.save(any(Order.class))).thenThrow(new IllegalArgumentException("Dados inválidos"));
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -133,32 +351,184 @@ class OrderServiceTest {
     @DisplayName("Testa a atualização de um pedido inexistente deve lançar NotFoundException")
     void atualizarPedidoInexistente() {
         Order order = OrderMockUtils.criarOrder();
-        order.setStatus("PAID");
+        order.setStatus(OrderStatus.PAID);
         
-        when(orderRepository.existsById(anyLong())).thenReturn(false);
+        when(orderRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         Order updatedOrder = orderService.updateOrder(1L, order);
 
         assertNull(updatedOrder);
     }
     
+    @Test
+    @DisplayName("Testa que o PATCH de um pedido usa um único UPDATE versionado e retorna a nova versão")
+    void patchPedidoSucesso() {
+        OrderPatch patch = new OrderPatch(null, null, OrderStatus.PAID);
+        when(orderRepository.findStatsSnapshotById(1L))
+                .thenReturn(Optional.of(new OrderStatsSnapshot(7L, ORDER_DATE, OrderStatus.NEW, BigDecimal.TEN, 3L)));
+        when(orderRepository.patch(1L, 3L, patch)).thenReturn(1);
+
+        long version = orderService.patchOrder(1L, 3L, patch);
+
+        assertEquals(4L, version);
+        verify(orderRepository, never()).findById(anyLong());
+        assertEquals(Map.of(
+                new OrderStatsDelta.Key(ORDER_HOUR, OrderStatus.NEW), new OrderStatsDelta.Change(-1, BigDecimal.TEN.negate()),
+                new OrderStatsDelta.Key(ORDER_HOUR, OrderStatus.PAID), new OrderStatsDelta.Change(1, BigDecimal.TEN)),
+                appliedStats());
+    }
+
+    @Test
+    @DisplayName("Testa que o PATCH do totalValue de um pedido com itens deve lançar BadRequestException")
+    void patchTotalDePedidoComItens() {
+        OrderPatch patch = new OrderPatch(null, new BigDecimal("99.00"), null);
+        when(orderRepository.findStatsSnapshotById(1L))
+                .thenReturn(Optional.of(new OrderStatsSnapshot(7L, ORDER_DATE, OrderStatus.NEW, BigDecimal.TEN, 3L)));
+        when(orderRepository.hasItems(1L)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> orderService.patchOrder(1L, 3L, patch));
+        verify(orderRepository, never()).patch(anyLong(), anyLong(), any());
+        verifyNoInteractions(statsRollup);
+    }
+
+    @Test
+    @DisplayName("Testa que o PATCH do totalValue de um pedido sem itens altera o valor")
+    void patchTotalDePedidoSemItens() {
+        OrderPatch patch = new OrderPatch(null, new BigDecimal("99.00"), null);
+        when(orderRepository.findStatsSnapshotById(1L))
+                .thenReturn(Optional.of(new OrderStatsSnapshot(7L, ORDER_DATE, OrderStatus.NEW, BigDecimal.TEN, 3L)));
+        when(orderRepository.hasItems(1L)).thenReturn(false);
+        when(orderRepository.patch(1L, 3L, patch)).thenReturn(1);
+
+        assertEquals(4L, orderService.patchOrder(1L, 3L, patch));
+    }
+
+    @Test
+    @DisplayName("Testa que o PATCH com versão desatualizada deve lançar ConflictException sem executar o UPDATE")
+    void patchPedidoVersaoDesatualizada() {
+        OrderPatch patch = new OrderPatch(null, null, OrderStatus.PAID);
+        when(orderRepository.findStatsSnapshotById(1L))
+                .thenReturn(Optional.of(new OrderStatsSnapshot(7L, ORDER_DATE, OrderStatus.NEW, BigDecimal.TEN, 4L)));
+
+        assertThrows(ConflictException.class, () -> orderService.patchOrder(1L, 3L, patch));
+        verify(orderRepository, never()).patch(anyLong(), anyLong(), any());
+        verifyNoInteractions(statsRollup);
+    }
+
+    @Test
+    @DisplayName("Testa que o PATCH alterado por outra transação entre a leitura e o UPDATE deve lançar ConflictException")
+    void patchPedidoAlteradoDuranteUpdate() {
+        OrderPatch patch = new OrderPatch(null, null, OrderStatus.PAID);
+        when(orderRepository.findStatsSnapshotById(1L))
+                .thenReturn(Optional.of(new OrderStatsSnapshot(7L, ORDER_DATE, OrderStatus.NEW, BigDecimal.TEN, 3L)));
+        when(orderRepository.patch(1L, 3L, patch)).thenReturn(0);
+
+        assertThrows(ConflictException.class, () -> orderService.patchOrder(1L, 3L, patch));
+        verifyNoInteractions(statsRollup);
+    }
+
+    @Test
+    @DisplayName("Testa que o PATCH de um pedido inexistente deve lançar NotFoundException")
+    void patchPedidoInexistente() {
+        OrderPatch patch = new OrderPatch(null, null, OrderStatus.PAID);
+        when(orderRepository.findStatsSnapshotById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> orderService.patchOrder(1L, 3L, patch));
+        verify(orderRepository, never()).patch(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Testa que o PATCH sem campos deve lançar BadRequestException")
+    void patchPedidoVazio() {
+        assertThrows(BadRequestException.class, () -> orderService.patchOrder(1L, 3L, new OrderPatch(null, null, null)));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Testa que a transição de status por IDs remove repetidos e executa um UPDATE por bloco")
+    void transicaoDeStatusPorIds() {
+        ReflectionTestUtils.setField(orderService, "transitionChunkSize", 2);
+        OrderStatusTransition transition = new OrderStatusTransition(OrderStatus.NEW, OrderStatus.SHIPPED, List.of(1L, 2L, 2L, 3L), null, null, null);
+        when(orderRepository.sumTransitionCandidates(eq(transition), any()))
+                .thenReturn(List.of(statsRow(2, "20.00")))
+                .thenReturn(List.of(statsRow(1, "5.00")));
+        when(orderRepository.transitionStatus(eq(transition), any())).thenReturn(2, 1);
+
+        OrderStatusTransitionResult result = orderService.transitionStatus(transition);
+
+        assertEquals(new OrderStatusTransitionResult(3, 3, 2), result);
+        verify(orderRepository).transitionStatus(transition, List.of(1L, 2L));
+        verify(orderRepository).transitionStatus(transition, List.of(3L));
+        assertEquals(Map.of(
+                new OrderStatsDelta.Key(ORDER_HOUR, OrderStatus.NEW), new OrderStatsDelta.Change(-3, new BigDecimal("-25.00")),
+                new OrderStatsDelta.Key(ORDER_HOUR, OrderStatus.SHIPPED), new OrderStatsDelta.Change(3, new BigDecimal("25.00"))),
+                appliedStats());
+    }
+
+    @Test
+    @DisplayName("Testa que a transição de status por filtro executa um único UPDATE")
+    void transicaoDeStatusPorFiltro() {
+        OrderStatusTransition transition = new OrderStatusTransition(OrderStatus.NEW, OrderStatus.SHIPPED, null, 1L, null, null);
+        when(orderRepository.sumTransitionCandidates(transition, null)).thenReturn(List.of(statsRow(40, "400.00")));
+        when(orderRepository.transitionStatus(transition, null)).thenReturn(40);
+
+        OrderStatusTransitionResult result = orderService.transitionStatus(transition);
+
+        assertEquals(new OrderStatusTransitionResult(null, 40, 1), result);
+    }
+
+    @Test
+    @DisplayName("Testa que a transição de status que altera outra quantidade de pedidos que a somada deve lançar ConflictException")
+    void transicaoDeStatusComPedidosAlterados() {
+        OrderStatusTransition transition = new OrderStatusTransition(OrderStatus.NEW, OrderStatus.SHIPPED, null, 1L, null, null);
+        when(orderRepository.sumTransitionCandidates(transition, null)).thenReturn(List.of(statsRow(40, "400.00")));
+        when(orderRepository.transitionStatus(transition, null)).thenReturn(41);
+
+        assertThrows(ConflictException.class, () -> orderService.transitionStatus(transition));
+        verifyNoInteractions(statsRollup);
+    }
+
+    @Test
+    @DisplayName("Testa que a transição de status sem IDs nem filtro deve lançar BadRequestException")
+    void transicaoDeStatusSemSelecao() {
+        OrderStatusTransition transition = new OrderStatusTransition(OrderStatus.NEW, OrderStatus.SHIPPED, List.of(), null, null, null);
+
+        assertThrows(BadRequestException.class, () -> orderService.transitionStatus(transition));
+        verifyNoInteractions(orderRepository);
+    }
+
     @Test
     @DisplayName("Testa a deleção de um pedido com sucesso")
     void testDeleteOrderSuccess() {
-        when(orderRepository.existsById(anyLong())).thenReturn(true);
-        doNothing().when(orderRepository).deleteById(anyLong());
+        Order order = OrderMockUtils.criarOrder();
+        order.setOrderDate(ORDER_DATE);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
 
         assertDoesNotThrow(() -> orderService.deleteOrder(1L));
-        verify(orderRepository, times(1)).deleteById(1L);
+        verify(orderRepository, times(1)).delete(order);
+        verify(eventPublisher).publishEvent(new OrderDeletedEvent(1L));
+        assertEquals(Map.of(new OrderStatsDelta.Key(ORDER_HOUR, OrderStatus.NEW), new OrderStatsDelta.Change(-1, BigDecimal.valueOf(-100.00))),
+                appliedStats());
     }
     
     @Test
     @DisplayName("Testa a deleção de um pedido inexistente deve lançar NotFoundException")
     void testDeleteOrderNotFound() {
-        when(orderRepository.existsById(anyLong())).thenReturn(false);
+        when(orderRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> orderService.deleteOrder(1L));
         assertEquals("Pedido não encontrado com o ID: 1", exception.getMessage());
     }
 
-}
\ No newline at end of file
+    private static OrderStatsRow statsRow(long orderCount, String totalValue) {
+        return new OrderStatsRow(2024, 5, 10, 14, OrderStatus.NEW, orderCount, new BigDecimal(totalValue));
+    }
+
+    private Map<OrderStatsDelta.Key, OrderStatsDelta.Change> appliedStats() {
+        ArgumentCaptor<OrderStatsDelta> delta = ArgumentCaptor.forClass(OrderStatsDelta.class);
+        verify(statsRollup).apply(delta.capture());
+        Map<OrderStatsDelta.Key, OrderStatsDelta.Change> changes = new LinkedHashMap<>();
+        delta.getValue().forEach(changes::put);
+        return changes;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.cliente.service;
+
+import com.example.cliente.dto.OrderStatsBackfillResult;
+import com.example.cliente.dto.OrderStatsBucket;
+import com.example.cliente.exception.BadRequestException;
+import com.example.cliente.model.OrderStatsHourly;
+import com.example.cliente.model.OrderStatus;
+import com.example.cliente.repository.OrderRepository;
+import com.example.cliente.repository.OrderStatsHourlyRepository;
+import com.example.cliente.stats.OrderStatsRow;
+import com.example.cliente.stats.StatsBucket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatsServiceTest {
+
+    private static final LocalDateTime MAY_10 = LocalDateTime.of(2024, 5, 10, 0, 0);
+
+    @Mock
+    private OrderStatsHourlyRepository statsRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderStatsService orderStatsService;
+
+    @BeforeEach
+    void setUp() {
+        orderStatsService = new OrderStatsService(statsRepository, orderRepository, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Testa que as estatísticas por dia somam as horas de cada status e calculam o ticket médio")
+    void estatisticasPorDia() {
+        when(statsRepository.findRange(MAY_10, MAY_10.plusDays(2))).thenReturn(List.of(
+                new OrderStatsHourly(MAY_10.plusHours(9), OrderStatus.NEW, 2, new BigDecimal("30.00")),
+                new OrderStatsHourly(MAY_10.plusHours(9), OrderStatus.PAID, 0, BigDecimal.ZERO),
+                new OrderStatsHourly(MAY_10.plusHours(15), OrderStatus.NEW, 1, new BigDecimal("10.00")),
+                new OrderStatsHourly(MAY_10.plusHours(26), OrderStatus.PAID, 3, new BigDecimal("10.00"))));
+
+        List<OrderStatsBucket> buckets = orderStatsService.stats(MAY_10, MAY_10.plusDays(2), StatsBucket.DAY);
+
+        assertEquals(List.of(
+                new OrderStatsBucket(MAY_10, OrderStatus.NEW, 3, new BigDecimal("40.00"), new BigDecimal("13.33")),
+                new OrderStatsBucket(MAY_10.plusDays(1), OrderStatus.PAID, 3, new BigDecimal("10.00"), new BigDecimal("3.33"))),
+                buckets);
+    }
+
+    @Test
+    @DisplayName("Testa que as estatísticas com período invertido ou longo demais devem lançar BadRequestException")
+    void estatisticasComPeriodoInvalido() {
+        assertThrows(BadRequestException.class, () -> orderStatsService.stats(MAY_10, MAY_10, StatsBucket.HOUR));
+        assertThrows(BadRequestException.class,
+                () -> orderStatsService.stats(MAY_10, MAY_10.plusYears(2), StatsBucket.MONTH));
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    @DisplayName("Testa que o backfill reconstrói um dia por vez: apaga as horas do dia e grava as somas de cada status")
+    void backfillPorDia() {
+        when(orderRepository.sumByHourForStatus(any(), any(), any())).thenReturn(List.of());
+        when(orderRepository.sumByHourForStatus(OrderStatus.PAID, MAY_10, MAY_10.plusDays(1))).thenReturn(List.of(
+                new OrderStatsRow(2024, 5, 10, 14, OrderStatus.PAID, 2L, new BigDecimal("50.00"))));
+
+        OrderStatsBackfillResult result = orderStatsService.backfill(LocalDate.of(2024, 5, 10), LocalDate.of(2024, 5, 12));
+
+        assertEquals(new OrderStatsBackfillResult(LocalDate.of(2024, 5, 10), LocalDate.of(2024, 5, 12), 2, 1), result);
+        InOrder inOrder = inOrder(statsRepository);
+        inOrder.verify(statsRepository).deleteRange(MAY_10, MAY_10.plusDays(1));
+        inOrder.verify(statsRepository).insert(MAY_10.plusHours(14), 'P', 2L, new BigDecimal("50.00"));
+        inOrder.verify(statsRepository).deleteRange(MAY_10.plusDays(1), MAY_10.plusDays(2));
+        verify(transactionManager, times(2)).commit(any());
+    }
+}
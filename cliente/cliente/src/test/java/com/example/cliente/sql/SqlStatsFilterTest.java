@@ -0,0 +1,42 @@
+package com.example.cliente.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatsFilterTest {
+
+    private final SqlStatsFilter filter = new SqlStatsFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "countRows", true);
+    }
+
+    @Test
+    @DisplayName("Testa que a contagem de SQL da requisição vai para os cabeçalhos antes do corpo")
+    void cabecalhosDeSql() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/customers/1/orders"), response, (req, res) -> {
+            SqlStats stats = SqlStats.current();
+            for (int i = 0; i < 6; i++) {
+                stats.beforeStatement();
+                stats.afterStatement("select * from customer where id=" + i);
+                stats.rowFetched();
+            }
+            res.getWriter().write("[]");
+        });
+
+        assertEquals("6", response.getHeader(SqlStatsFilter.COUNT_HEADER));
+        assertEquals("6", response.getHeader(SqlStatsFilter.ROWS_HEADER));
+        assertNotNull(response.getHeader(SqlStatsFilter.TIME_HEADER));
+        assertEquals("6", response.getHeader(SqlStatsFilter.N_PLUS_ONE_HEADER));
+        assertNull(SqlStats.current());
+    }
+}
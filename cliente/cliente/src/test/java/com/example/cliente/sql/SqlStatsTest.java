@@ -0,0 +1,50 @@
+package com.example.cliente.sql;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatsTest {
+
+    @Test
+    @DisplayName("Testa que comandos que diferem só nos parâmetros têm o mesmo texto normalizado")
+    void normalizar() {
+        assertEquals("select * from customer where id=? and name=?",
+                SqlStats.normalize("select *  from customer\n where id=42 and name='O''Brien'"));
+        assertEquals(SqlStats.normalize("select o.id from order_table o where o.id in (?,?,?)"),
+                SqlStats.normalize("select o.id from order_table o where o.id in ( ? , ? )"));
+    }
+
+    @Test
+    @DisplayName("Testa que o mesmo SELECT repetido acima do limite é reportado como N+1")
+    void detectarNMaisUm() {
+        SqlStats stats = new SqlStats();
+        stats.afterStatement("select * from customer where id=?");
+        for (int i = 0; i < 10; i++) {
+            stats.afterStatement("select * from order_item where order_id=" + i);
+        }
+
+        Map.Entry<String, Integer> repeated = stats.repeatedSelect(5);
+
+        assertNotNull(repeated);
+        assertEquals("select * from order_item where order_id=?", repeated.getKey());
+        assertEquals(10, repeated.getValue());
+        assertEquals(11, stats.statementCount());
+        assertNull(stats.repeatedSelect(11));
+    }
+
+    @Test
+    @DisplayName("Testa que INSERTs repetidos não contam como N+1")
+    void insertsNaoSaoNMaisUm() {
+        SqlStats stats = new SqlStats();
+        for (int i = 0; i < 10; i++) {
+            stats.afterStatement("insert into customer (id, name) values (?, ?)");
+        }
+
+        assertNull(stats.repeatedSelect(5));
+        assertEquals(10, stats.statementCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.cliente.stats;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.cliente.model.Customer;
+import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatsDeltaTest {
+
+    private static final LocalDateTime TEN_O_CLOCK = LocalDateTime.of(2024, 5, 10, 10, 0);
+
+    @Test
+    @DisplayName("Testa que pedidos da mesma hora e status se somam e entradas que se anulam são ignoradas")
+    void somaPorHoraEStatus() {
+        OrderStatsDelta delta = new OrderStatsDelta()
+                .add(order(TEN_O_CLOCK.plusMinutes(5), OrderStatus.NEW, "10.00"))
+                .add(order(TEN_O_CLOCK.plusMinutes(50), OrderStatus.NEW, "15.00"))
+                .add(order(TEN_O_CLOCK, OrderStatus.PAID, "8.00"))
+                .remove(order(TEN_O_CLOCK.plusMinutes(30), OrderStatus.PAID, "8.00"));
+
+        List<OrderStatsDelta.Key> keys = new ArrayList<>();
+        delta.forEach((key, change) -> {
+            keys.add(key);
+            assertEquals(new OrderStatsDelta.Change(2, new BigDecimal("25.00")), change);
+        });
+
+        assertEquals(List.of(new OrderStatsDelta.Key(TEN_O_CLOCK, OrderStatus.NEW)), keys);
+        assertFalse(delta.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testa que as entradas são percorridas por hora e depois por status, sempre na mesma ordem")
+    void percorreEmOrdem() {
+        OrderStatsDelta delta = new OrderStatsDelta()
+                .add(order(TEN_O_CLOCK.plusHours(1), OrderStatus.NEW, "1.00"))
+                .add(order(TEN_O_CLOCK, OrderStatus.SHIPPED, "1.00"))
+                .add(order(TEN_O_CLOCK, OrderStatus.NEW, "1.00"));
+
+        List<OrderStatsDelta.Key> keys = new ArrayList<>();
+        delta.forEach((key, change) -> keys.add(key));
+
+        assertEquals(List.of(
+                new OrderStatsDelta.Key(TEN_O_CLOCK, OrderStatus.NEW),
+                new OrderStatsDelta.Key(TEN_O_CLOCK, OrderStatus.SHIPPED),
+                new OrderStatsDelta.Key(TEN_O_CLOCK.plusHours(1), OrderStatus.NEW)), keys);
+    }
+
+    @Test
+    @DisplayName("Testa que pedidos sem data ou sem status não entram nos agregados")
+    void ignoraPedidosSemDataOuStatus() {
+        OrderStatsDelta delta = new OrderStatsDelta()
+                .add(order(null, OrderStatus.NEW, "10.00"))
+                .add(order(TEN_O_CLOCK, null, "10.00"));
+
+        assertTrue(delta.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testa que o resumo do cliente soma todos os pedidos e só pede releitura da data ao perder o último")
+    void resumoDoCliente() {
+        OrderStatsDelta delta = new OrderStatsDelta()
+                .add(order(7L, TEN_O_CLOCK, OrderStatus.NEW, "10.00"))
+                .add(order(7L, null, null, "5.00"))
+                .remove(order(8L, TEN_O_CLOCK.plusHours(2), OrderStatus.PAID, "4.00"))
+                .add(order(8L, TEN_O_CLOCK.plusHours(1), OrderStatus.PAID, "6.00"));
+
+        Map<Long, OrderStatsDelta.CustomerChange> customers = new LinkedHashMap<>();
+        delta.forEachCustomer(customers::put);
+
+        assertEquals(List.of(7L, 8L), List.copyOf(customers.keySet()));
+        assertEquals(2, customers.get(7L).count());
+        assertEquals(new BigDecimal("15.00"), customers.get(7L).value());
+        assertFalse(customers.get(7L).removesLatest());
+        assertEquals(0, customers.get(8L).count());
+        assertEquals(new BigDecimal("2.00"), customers.get(8L).value());
+        assertTrue(customers.get(8L).removesLatest());
+    }
+
+    @Test
+    @DisplayName("Testa que trocar um pedido por ele mesmo não altera nenhum resumo")
+    void alteracaoSemEfeito() {
+        Order order = order(7L, TEN_O_CLOCK, OrderStatus.NEW, "10.00");
+
+        OrderStatsDelta delta = new OrderStatsDelta().remove(order).add(order);
+
+        assertTrue(delta.isEmpty());
+    }
+
+    private static Order order(LocalDateTime orderDate, OrderStatus status, String totalValue) {
+        return new Order(null, orderDate, new BigDecimal(totalValue), status);
+    }
+
+    private static Order order(Long customerId, LocalDateTime orderDate, OrderStatus status, String totalValue) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        return new Order(customer, orderDate, new BigDecimal(totalValue), status);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.cliente.util;
 
 import com.example.cliente.model.Order;
+import com.example.cliente.model.OrderStatus;
 
 import java.math.BigDecimal;
 
@@ -11,7 +12,7 @@ public class OrderMockUtils {
 
         order.setId(1L);
         order.setTotalValue(BigDecimal.valueOf(100.00));
-        order.setStatus("NEW");
+        order.setStatus(OrderStatus.NEW);
 
         return order;
     }